@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Character buffer in front of a writer. Numbers are formatted directly into
+ * the buffer, so writing them creates no temporary strings.
+ */
+final class CharOutput {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int count;
+
+    CharOutput(Writer writer) {
+        this.writer = writer;
+    }
+
+    CharOutput write(char c) throws IOException {
+
+        if (count == BUFFER_SIZE) {
+            flushBuffer();
+        }
+
+        buffer[count++] = c;
+
+        return this;
+    }
+
+    CharOutput write(String text) throws IOException {
+        return write(text, 0, text.length());
+    }
+
+    CharOutput write(String text, int start, int end) throws IOException {
+
+        int length = end - start;
+
+        if (length > BUFFER_SIZE - count) {
+            flushBuffer();
+            if (length > BUFFER_SIZE) {
+                writer.write(text, start, length);
+                return this;
+            }
+        }
+
+        text.getChars(start, end, buffer, count);
+        count += length;
+
+        return this;
+    }
+
+    CharOutput write(int value) throws IOException {
+
+        if (count > BUFFER_SIZE - 11) {
+            flushBuffer();
+        }
+
+        if (value < 0) {
+            if (value == Integer.MIN_VALUE) {
+                return write(Integer.toString(value));
+            }
+            buffer[count++] = '-';
+            value = -value;
+        }
+
+        int end = count + digitCount(value);
+        int position = end;
+
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+
+        count = end;
+
+        return this;
+    }
+
+    /**
+     * Writes the value in the 0..1 range with up to three decimal places,
+     * e.g. 0.5 as "0.5".
+     */
+    CharOutput writeFraction(double value) throws IOException {
+
+        int thousandths = (int) Math.round(Math.max(0, Math.min(1, value)) * 1000);
+
+        if (thousandths == 1000) {
+            return write('1');
+        }
+
+        write('0');
+
+        if (thousandths > 0) {
+            write('.');
+            for (int divisor = 100; thousandths > 0; divisor /= 10) {
+                write((char) ('0' + thousandths / divisor));
+                thousandths %= divisor;
+            }
+        }
+
+        return this;
+    }
+
+    void flush() throws IOException {
+        flushBuffer();
+        writer.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            writer.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private static int digitCount(int value) {
+
+        int digitCount = 1;
+
+        while (value >= 10) {
+            value /= 10;
+            digitCount++;
+        }
+
+        return digitCount;
+    }
+
+}
@@ -0,0 +1,628 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.export;
+
+import in.drifted.tools.genopro.core.model.BoundaryRect;
+import in.drifted.tools.genopro.core.model.Color;
+import in.drifted.tools.genopro.core.model.DocumentInfo;
+import in.drifted.tools.genopro.core.model.EventDate;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyEvent;
+import in.drifted.tools.genopro.core.model.GenoDate;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Hyperlink;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Label;
+import in.drifted.tools.genopro.core.model.LabelStyle;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.model.Position;
+import in.drifted.tools.genopro.core.model.Rect;
+import in.drifted.tools.genopro.core.util.PackedDateUtil;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming JSON writer of parsed GenoPro data. Values are written directly
+ * to the output, no intermediate tree is built. Fields having no value
+ * (null or not parsed) are left out, enums are written by their names,
+ * entities are sorted by their keys, labels by their z-index.
+ * <p>
+ * The document has the following schema (version 1):
+ * <pre>
+ * {
+ *   "version": 1,
+ *   "documentInfo": {"title", "description", "displayStyle"},
+ *   "genoMaps": [GenoMapData]
+ * }
+ *
+ * GenoMapData: {
+ *   "genoMap": {"id", "name", "title", "boundaryRect"},
+ *   "individuals": [{"id", "key", "hyperlink": {"genoMapId", "id"},
+ *       "name": {"first", "middle", "last", "last2"}, "gender", "birth": Event, "death": Event,
+ *       "deceased", "anonymized", "position", "boundaryRect", "highlightKeys": [string]}],
+ *   "families": [{"id", "key", "fatherId", "motherId", "label", "relationType", "lineType",
+ *       "events": [Event with "type": "MARRIAGE" | "DIVORCE"],
+ *       "pedigreeLinks": [{"individualId", "type", "position", "twinPosition"}],
+ *       "position", "topBoundaryRect", "bottomBoundaryRect"}],
+ *   "labels": [{"text", "rect", "zIndex", "style": {"size", "horizontalAlignment", "verticalAlignment",
+ *       "padding", "textColor", "fillColor", "border": {"color", "size", "pattern"}}}]
+ * }
+ *
+ * Event: {"date", "packedDate", "place", "comment"}
+ * </pre>
+ * Dates are GenoPro date texts, e.g. "~1850" or "12 Mar 1850", packed dates
+ * are sortable yyyymmdd ints (see {@link PackedDateUtil}). Positions are
+ * [x, y] arrays, boundary rectangles [left, top, right, bottom] arrays and
+ * label rectangles [x, y, width, height] arrays, all in GenoPro coordinates
+ * where y grows upwards. Colors are "#rrggbb" or "#rrggbbaa" strings.
+ * <p>
+ * When written in chunks, the index file has the same schema, but each
+ * GenoMap has just the "genoMap" field extended with "file",
+ * "individualCount", "familyCount" and "labelCount" fields, the file
+ * containing GenoMapData.
+ */
+public class DocumentJsonWriter {
+
+    public static final int SCHEMA_VERSION = 1;
+    public static final String INDEX_FILE_NAME = "document.json";
+    public static final String CHUNK_FILE_PREFIX = "genomap-";
+
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final int GZIP_BUFFER_SIZE = 65536;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final Comparator<Label> LABEL_COMPARATOR = Comparator.comparingInt(Label::zIndex);
+
+    private final CharOutput output;
+    private boolean separatorPending;
+
+    private DocumentJsonWriter(Writer writer) {
+        this.output = new CharOutput(writer);
+    }
+
+    /**
+     * Writes the document including all GenoMaps.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @param documentInfo document info, can be null
+     * @param writer target writer, flushed, but not closed
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(List<GenoMapData> genoMapDataList, DocumentInfo documentInfo, Writer writer)
+            throws IOException {
+
+        DocumentJsonWriter jsonWriter = new DocumentJsonWriter(writer);
+
+        jsonWriter.beginDocument(documentInfo);
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            jsonWriter.writeGenoMapData(genoMapData);
+        }
+
+        jsonWriter.endDocument();
+    }
+
+    /**
+     * Writes the document including all GenoMaps in UTF-8.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @param documentInfo document info, can be null
+     * @param outputStream target stream, flushed, but not closed
+     * @param gzipped true for gzip compressed output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(List<GenoMapData> genoMapDataList, DocumentInfo documentInfo,
+            OutputStream outputStream, boolean gzipped) throws IOException {
+
+        if (gzipped) {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+            write(genoMapDataList, documentInfo, getWriter(gzipOutputStream));
+            gzipOutputStream.finish();
+            outputStream.flush();
+
+        } else {
+            write(genoMapDataList, documentInfo, getWriter(outputStream));
+        }
+    }
+
+    /**
+     * Writes the data of a single GenoMap.
+     *
+     * @param genoMapData GenoMap data
+     * @param writer target writer, flushed, but not closed
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(GenoMapData genoMapData, Writer writer) throws IOException {
+
+        DocumentJsonWriter jsonWriter = new DocumentJsonWriter(writer);
+
+        jsonWriter.writeGenoMapData(genoMapData);
+        jsonWriter.output.flush();
+    }
+
+    /**
+     * Writes the data of a single GenoMap in UTF-8.
+     *
+     * @param genoMapData GenoMap data
+     * @param outputStream target stream, flushed, but not closed
+     * @param gzipped true for gzip compressed output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(GenoMapData genoMapData, OutputStream outputStream, boolean gzipped)
+            throws IOException {
+
+        if (gzipped) {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+            write(genoMapData, getWriter(gzipOutputStream));
+            gzipOutputStream.finish();
+            outputStream.flush();
+
+        } else {
+            write(genoMapData, getWriter(outputStream));
+        }
+    }
+
+    /**
+     * Writes the data of each GenoMap into a separate file named by the
+     * prefixed GenoMap ID, e.g. "genomap-family.json", so clients can load
+     * GenoMaps on demand. The prefix keeps chunks apart from the index file
+     * even for a GenoMap with the "document" ID. The index file lists all
+     * GenoMaps and their files.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @param documentInfo document info, can be null
+     * @param directory target directory
+     * @param gzipped true for gzip compressed files with the ".gz" extension
+     * @return the path of the index file
+     * @throws IOException if an I/O error occurs
+     */
+    public static Path writeChunks(List<GenoMapData> genoMapDataList, DocumentInfo documentInfo, Path directory,
+            boolean gzipped) throws IOException {
+
+        Files.createDirectories(directory);
+
+        String extension = gzipped ? ".json" + GZIP_EXTENSION : ".json";
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            try (OutputStream outputStream = Files.newOutputStream(
+                    directory.resolve(CHUNK_FILE_PREFIX + genoMapData.genoMap().id() + extension))) {
+                write(genoMapData, outputStream, gzipped);
+            }
+        }
+
+        Path indexPath = directory.resolve(gzipped ? INDEX_FILE_NAME + GZIP_EXTENSION : INDEX_FILE_NAME);
+
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(indexPath));
+                GZIPOutputStream gzipOutputStream = gzipped ? new GZIPOutputStream(outputStream) : null) {
+
+            DocumentJsonWriter jsonWriter = new DocumentJsonWriter(
+                    getWriter((gzipOutputStream != null) ? gzipOutputStream : outputStream));
+
+            jsonWriter.beginDocument(documentInfo);
+
+            for (GenoMapData genoMapData : genoMapDataList) {
+                jsonWriter.beginObject();
+                jsonWriter.name("genoMap");
+                jsonWriter.beginGenoMap(genoMapData.genoMap());
+                jsonWriter.field("file", CHUNK_FILE_PREFIX + genoMapData.genoMap().id() + extension);
+                jsonWriter.field("individualCount", genoMapData.individualSet().size());
+                jsonWriter.field("familyCount", genoMapData.familySet().size());
+                jsonWriter.field("labelCount", genoMapData.labelSet().size());
+                jsonWriter.endObject();
+                jsonWriter.endObject();
+            }
+
+            jsonWriter.endDocument();
+        }
+
+        return indexPath;
+    }
+
+    private static Writer getWriter(OutputStream outputStream) {
+        return new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    }
+
+    private void beginDocument(DocumentInfo documentInfo) throws IOException {
+
+        beginObject();
+        field("version", SCHEMA_VERSION);
+
+        if (documentInfo != null) {
+            name("documentInfo");
+            beginObject();
+            field("title", documentInfo.title());
+            field("description", documentInfo.description());
+            if (documentInfo.displayStyle() != null) {
+                field("displayStyle", documentInfo.displayStyle().name());
+            }
+            endObject();
+        }
+
+        name("genoMaps");
+        beginArray();
+    }
+
+    private void endDocument() throws IOException {
+        endArray();
+        endObject();
+        output.flush();
+    }
+
+    private void writeGenoMapData(GenoMapData genoMapData) throws IOException {
+
+        beginObject();
+
+        name("genoMap");
+        beginGenoMap(genoMapData.genoMap());
+        endObject();
+
+        Individual[] individuals = genoMapData.individualSet().toArray(Individual[]::new);
+        Arrays.sort(individuals);
+
+        name("individuals");
+        beginArray();
+        for (Individual individual : individuals) {
+            writeIndividual(individual);
+        }
+        endArray();
+
+        Family[] families = genoMapData.familySet().toArray(Family[]::new);
+        Arrays.sort(families);
+
+        name("families");
+        beginArray();
+        for (Family family : families) {
+            writeFamily(family);
+        }
+        endArray();
+
+        Label[] labels = genoMapData.labelSet().toArray(Label[]::new);
+        Arrays.sort(labels, LABEL_COMPARATOR);
+
+        name("labels");
+        beginArray();
+        for (Label label : labels) {
+            writeLabel(label);
+        }
+        endArray();
+
+        endObject();
+    }
+
+    private void beginGenoMap(GenoMap genoMap) throws IOException {
+        beginObject();
+        field("id", genoMap.id());
+        field("name", genoMap.name());
+        field("title", genoMap.title());
+        field("boundaryRect", genoMap.boundaryRect());
+    }
+
+    private void writeIndividual(Individual individual) throws IOException {
+
+        beginObject();
+        field("id", individual.id());
+        field("key", individual.key());
+
+        Hyperlink hyperlink = individual.hyperlink();
+
+        if (hyperlink != null) {
+            name("hyperlink");
+            beginObject();
+            if (hyperlink.genoMap() != null) {
+                field("genoMapId", hyperlink.genoMap().id());
+            }
+            field("id", hyperlink.id());
+            endObject();
+        }
+
+        Name name = individual.name();
+
+        if (name != null) {
+            name("name");
+            beginObject();
+            field("first", name.first());
+            field("middle", name.middle());
+            field("last", name.last());
+            field("last2", name.last2());
+            endObject();
+        }
+
+        if (individual.gender() != null) {
+            field("gender", individual.gender().name());
+        }
+
+        field("birth", individual.birth());
+        field("death", individual.death());
+        field("deceased", individual.isDeceased());
+        field("anonymized", individual.isAnonymized());
+        field("position", individual.position());
+        field("boundaryRect", individual.boundaryRect());
+
+        if (individual.highlightKeySet() != null && !individual.highlightKeySet().isEmpty()) {
+            name("highlightKeys");
+            beginArray();
+            for (String highlightKey : individual.highlightKeySet()) {
+                value(highlightKey);
+            }
+            endArray();
+        }
+
+        endObject();
+    }
+
+    private void writeFamily(Family family) throws IOException {
+
+        beginObject();
+        field("id", family.id());
+        field("key", family.key());
+        field("fatherId", family.fatherId());
+        field("motherId", family.motherId());
+        field("label", family.label());
+
+        if (family.familyRelationType() != null) {
+            field("relationType", family.familyRelationType().name());
+        }
+
+        if (family.familyLineType() != null) {
+            field("lineType", family.familyLineType().name());
+        }
+
+        if (family.familyEventList() != null && !family.familyEventList().isEmpty()) {
+            name("events");
+            beginArray();
+            for (FamilyEvent familyEvent : family.familyEventList()) {
+                beginObject();
+                field("type", (familyEvent.type() == FamilyEvent.DIVORCE) ? "DIVORCE" : "MARRIAGE");
+                writeEventFields(familyEvent.date(), familyEvent.place(), familyEvent.comment());
+                endObject();
+            }
+            endArray();
+        }
+
+        name("pedigreeLinks");
+        beginArray();
+        for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+            beginObject();
+            field("individualId", pedigreeLink.individualId());
+            if (pedigreeLink.pedigreeLinkType() != null) {
+                field("type", pedigreeLink.pedigreeLinkType().name());
+            }
+            field("position", pedigreeLink.position());
+            field("twinPosition", pedigreeLink.twinPosition());
+            endObject();
+        }
+        endArray();
+
+        field("position", family.position());
+        field("topBoundaryRect", family.topBoundaryRect());
+        field("bottomBoundaryRect", family.bottomBoundaryRect());
+        endObject();
+    }
+
+    private void writeLabel(Label label) throws IOException {
+
+        beginObject();
+        field("text", label.text());
+
+        Rect rect = label.rect();
+
+        if (rect != null) {
+            name("rect");
+            beginArray();
+            value(rect.x());
+            value(rect.y());
+            value(rect.width());
+            value(rect.height());
+            endArray();
+            field("zIndex", label.zIndex());
+        }
+
+        LabelStyle labelStyle = label.labelStyle();
+
+        if (labelStyle != null) {
+            name("style");
+            beginObject();
+            field("size", labelStyle.size().name());
+            field("horizontalAlignment", labelStyle.horizontalAlignment().name());
+            field("verticalAlignment", labelStyle.verticalAlignment().name());
+            field("padding", labelStyle.padding());
+            field("textColor", labelStyle.textColor());
+            field("fillColor", labelStyle.fillColor());
+            if (labelStyle.border() != null) {
+                name("border");
+                beginObject();
+                field("color", labelStyle.border().color());
+                field("size", labelStyle.border().size().name());
+                field("pattern", labelStyle.border().pattern());
+                endObject();
+            }
+            endObject();
+        }
+
+        endObject();
+    }
+
+    private void writeEventFields(GenoDate date, String place, String comment) throws IOException {
+
+        if (date != null && date.date() != null) {
+            field("date", date.date());
+            field("packedDate", PackedDateUtil.pack(date.localDate()));
+        }
+
+        field("place", place);
+        field("comment", comment);
+    }
+
+    private void field(String name, EventDate eventDate) throws IOException {
+        if (eventDate != null) {
+            name(name);
+            beginObject();
+            writeEventFields(eventDate.date(), eventDate.place(), eventDate.comment());
+            endObject();
+        }
+    }
+
+    private void field(String name, Position position) throws IOException {
+        if (position != null) {
+            name(name);
+            beginArray();
+            value(position.x());
+            value(position.y());
+            endArray();
+        }
+    }
+
+    private void field(String name, BoundaryRect boundaryRect) throws IOException {
+        if (boundaryRect != null) {
+            name(name);
+            beginArray();
+            value(boundaryRect.topLeft().x());
+            value(boundaryRect.topLeft().y());
+            value(boundaryRect.bottomRight().x());
+            value(boundaryRect.bottomRight().y());
+            endArray();
+        }
+    }
+
+    private void field(String name, Color color) throws IOException {
+        if (color != null) {
+            name(name);
+            separatorPending = true;
+            output.write("\"#");
+            writeHexByte(color.r());
+            writeHexByte(color.g());
+            writeHexByte(color.b());
+            if (color.a() < 1) {
+                writeHexByte((int) Math.round(color.a() * 255));
+            }
+            output.write('"');
+        }
+    }
+
+    private void field(String name, String value) throws IOException {
+        if (value != null) {
+            name(name);
+            value(value);
+        }
+    }
+
+    private void field(String name, int value) throws IOException {
+        name(name);
+        value(value);
+    }
+
+    private void field(String name, boolean value) throws IOException {
+        name(name);
+        separatorPending = true;
+        output.write(value ? "true" : "false");
+    }
+
+    private void name(String name) throws IOException {
+        writeSeparator();
+        output.write('"').write(name).write("\":");
+    }
+
+    private void value(String value) throws IOException {
+        writeSeparator();
+        separatorPending = true;
+        output.write('"');
+        writeEscaped(value);
+        output.write('"');
+    }
+
+    private void value(int value) throws IOException {
+        writeSeparator();
+        separatorPending = true;
+        output.write(value);
+    }
+
+    private void beginObject() throws IOException {
+        writeSeparator();
+        output.write('{');
+    }
+
+    private void endObject() throws IOException {
+        output.write('}');
+        separatorPending = true;
+    }
+
+    private void beginArray() throws IOException {
+        writeSeparator();
+        output.write('[');
+    }
+
+    private void endArray() throws IOException {
+        output.write(']');
+        separatorPending = true;
+    }
+
+    private void writeSeparator() throws IOException {
+        if (separatorPending) {
+            output.write(',');
+            separatorPending = false;
+        }
+    }
+
+    private void writeHexByte(int value) throws IOException {
+        output.write(HEX_DIGITS[(value >> 4) & 0xf]).write(HEX_DIGITS[value & 0xf]);
+    }
+
+    // control characters and line separators (invalid in JavaScript strings) are escaped
+    private void writeEscaped(String text) throws IOException {
+
+        int start = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+
+            if (c == '"' || c == '\\' || c < 0x20 || c == '\u2028' || c == '\u2029') {
+
+                output.write(text, start, i).write('\\');
+
+                switch (c) {
+                    case '"' -> output.write('"');
+                    case '\\' -> output.write('\\');
+                    case '\n' -> output.write('n');
+                    case '\r' -> output.write('r');
+                    case '\t' -> output.write('t');
+                    default -> {
+                        output.write('u');
+                        writeHexByte(c >> 8);
+                        writeHexByte(c & 0xff);
+                    }
+                }
+
+                start = i + 1;
+            }
+        }
+
+        output.write(text, start, text.length());
+    }
+
+}
@@ -0,0 +1,558 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.export;
+
+import in.drifted.tools.genopro.core.model.DocumentInfo;
+import in.drifted.tools.genopro.core.model.EventDate;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyEvent;
+import in.drifted.tools.genopro.core.model.GenoDate;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.model.PedigreeLinkType;
+import in.drifted.tools.genopro.core.model.Place;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming GEDCOM writer. Records are written one by one as they are
+ * produced, so apart from the parsed data itself, just a compact index of
+ * individual-family links is kept in memory.
+ * <p>
+ * Individuals and families are identified by their keys, e.g. {@code @I12@}
+ * and {@code @F5@}. Hyperlinked instances of the same individual are written
+ * as a single record. Event places are written including their parent
+ * places and coordinates, if known.
+ */
+public class GedcomWriter {
+
+    private static final int MAX_LINE_LENGTH = 200;
+
+    private static final int SPOUSE_LINK = 0;
+    private static final int CHILD_LINK = 1;
+    private static final int ADOPTED_CHILD_LINK = 2;
+
+    private final CharOutput output;
+    private final GedcomVersion gedcomVersion;
+    private final Map<String, Place> placeMap;
+    private final Map<String, Place> placeNameMap = new HashMap<>();
+    private final Map<String, String> placePathMap = new HashMap<>();
+    private final Map<String, String> individualIdMap = new HashMap<>();
+
+    private long[] links;
+
+    private GedcomWriter(Writer writer, GedcomVersion gedcomVersion, Map<String, Place> placeMap) {
+
+        this.output = new CharOutput(writer);
+        this.gedcomVersion = gedcomVersion;
+        this.placeMap = placeMap;
+
+        for (Place place : placeMap.values()) {
+            if (place.name() != null) {
+                placeNameMap.putIfAbsent(place.name(), place);
+            }
+        }
+    }
+
+    /**
+     * Writes all individuals and families as GEDCOM.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @param documentInfo document info used in the header, can be null
+     * @param placeMap map of place details by place ID, can be empty
+     * @param gedcomVersion GEDCOM version
+     * @param writer target writer, flushed, but not closed
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(List<GenoMapData> genoMapDataList, DocumentInfo documentInfo,
+            Map<String, Place> placeMap, GedcomVersion gedcomVersion, Writer writer) throws IOException {
+
+        GedcomWriter gedcomWriter = new GedcomWriter(writer, gedcomVersion, placeMap);
+
+        gedcomWriter.initialize(genoMapDataList);
+        gedcomWriter.writeHeader(documentInfo);
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+
+            Individual[] individuals = genoMapData.individualSet().toArray(Individual[]::new);
+            Arrays.sort(individuals);
+
+            for (Individual individual : individuals) {
+                if (!gedcomWriter.individualIdMap.containsKey(individual.id())) {
+                    gedcomWriter.writeIndividual(individual);
+                }
+            }
+        }
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+
+            Family[] families = genoMapData.familySet().toArray(Family[]::new);
+            Arrays.sort(families);
+
+            for (Family family : families) {
+                gedcomWriter.writeFamily(family);
+            }
+        }
+
+        gedcomWriter.writeTrailer();
+    }
+
+    /**
+     * Writes all individuals and families as GEDCOM in UTF-8.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @param documentInfo document info used in the header, can be null
+     * @param placeMap map of place details by place ID, can be empty
+     * @param gedcomVersion GEDCOM version
+     * @param outputStream target stream, flushed, but not closed
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(List<GenoMapData> genoMapDataList, DocumentInfo documentInfo,
+            Map<String, Place> placeMap, GedcomVersion gedcomVersion, OutputStream outputStream) throws IOException {
+        write(genoMapDataList, documentInfo, placeMap, gedcomVersion,
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    // each link is packed as individual key (32 bits), family key (30 bits) and link type (2 bits),
+    // so sorting groups the links of each individual together
+    private void initialize(List<GenoMapData> genoMapDataList) {
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            for (Individual individual : genoMapData.individualSet()) {
+                if (individual.hyperlink() != null) {
+                    individualIdMap.put(individual.id(), individual.hyperlink().id());
+                }
+            }
+        }
+
+        // instances hyperlinked to each other (deduplicated ones) are merged into the one with the lower ID
+        Map<String, String> canonicalIdMap = new HashMap<>();
+
+        for (Map.Entry<String, String> entry : individualIdMap.entrySet()) {
+            String id = entry.getKey();
+            String targetId = entry.getValue();
+            if (!id.equals(individualIdMap.get(targetId)) || targetId.compareTo(id) < 0) {
+                canonicalIdMap.put(id, targetId);
+            }
+        }
+
+        individualIdMap.clear();
+        individualIdMap.putAll(canonicalIdMap);
+
+        int linkCount = 0;
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            for (Family family : genoMapData.familySet()) {
+                linkCount += family.pedigreeLinkList().size();
+            }
+        }
+
+        links = new long[linkCount];
+
+        int index = 0;
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            for (Family family : genoMapData.familySet()) {
+                String[] spouseIds = getSpouseIds(family);
+                for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+                    String individualId = pedigreeLink.individualId();
+                    if (!pedigreeLink.isParent() || individualId.equals(spouseIds[0])
+                            || individualId.equals(spouseIds[1])) {
+                        int linkType = pedigreeLink.isParent() ? SPOUSE_LINK
+                                : (pedigreeLink.pedigreeLinkType() == PedigreeLinkType.ADOPTED)
+                                ? ADOPTED_CHILD_LINK : CHILD_LINK;
+                        links[index++] = ((long) getIndividualKey(getCanonicalId(individualId)) << 32)
+                                | ((long) family.key() << 2) | linkType;
+                    }
+                }
+            }
+        }
+
+        links = Arrays.copyOf(links, index);
+        Arrays.sort(links);
+    }
+
+    private void writeHeader(DocumentInfo documentInfo) throws IOException {
+
+        writeLine(0, "HEAD");
+
+        if (gedcomVersion == GedcomVersion.V7) {
+            writeLine(1, "GEDC");
+            writeLine(2, "VERS", gedcomVersion.getVersion());
+            writeLine(1, "SOUR", "GENOPRO_CORE");
+
+        } else {
+            writeLine(1, "SOUR", "GENOPRO_CORE");
+            writeLine(1, "GEDC");
+            writeLine(2, "VERS", gedcomVersion.getVersion());
+            writeLine(2, "FORM", "LINEAGE-LINKED");
+            writeLine(1, "CHAR", "UTF-8");
+            writeLine(1, "SUBM", "@SUBM@");
+        }
+
+        if (documentInfo != null && documentInfo.title() != null && !documentInfo.title().isEmpty()) {
+            writeText(1, "NOTE", (documentInfo.description() != null && !documentInfo.description().isEmpty())
+                    ? documentInfo.title() + "\n" + documentInfo.description() : documentInfo.title());
+        }
+
+        if (gedcomVersion == GedcomVersion.V5_5_1) {
+            output.write("0 @SUBM@ SUBM\n");
+            writeLine(1, "NAME", "Unknown");
+        }
+    }
+
+    private void writeIndividual(Individual individual) throws IOException {
+
+        int key = individual.key();
+
+        output.write("0 @I").write(key).write("@ INDI\n");
+
+        Name name = individual.name();
+
+        if (name != null && (name.first() != null || name.middle() != null || name.last() != null)) {
+            writeName(name);
+        }
+
+        output.write("1 SEX ").write(individual.isMale() ? 'M' : individual.isFemale() ? 'F' : 'U').write('\n');
+
+        writeEvent("BIRT", individual.birth(), false);
+        writeEvent("DEAT", individual.death(), individual.isDeceased());
+
+        int start = getFirstLinkIndex(key);
+
+        for (int i = start; i < links.length && (int) (links[i] >>> 32) == key; i++) {
+            int linkType = (int) links[i] & 3;
+            if (linkType != SPOUSE_LINK && (i == start || links[i] != links[i - 1])) {
+                output.write("1 FAMC @F").write((int) links[i] >>> 2).write("@\n");
+                if (linkType == ADOPTED_CHILD_LINK) {
+                    writeLine(2, "PEDI", (gedcomVersion == GedcomVersion.V7) ? "ADOPTED" : "adopted");
+                }
+            }
+        }
+
+        for (int i = start; i < links.length && (int) (links[i] >>> 32) == key; i++) {
+            if (((int) links[i] & 3) == SPOUSE_LINK && (i == start || links[i] != links[i - 1])) {
+                output.write("1 FAMS @F").write((int) links[i] >>> 2).write("@\n");
+            }
+        }
+    }
+
+    private void writeName(Name name) throws IOException {
+
+        output.write("1 NAME");
+
+        String givenName = (name.middle() != null)
+                ? (name.first() != null) ? name.first() + " " + name.middle() : name.middle()
+                : name.first();
+
+        if (givenName != null) {
+            output.write(' ');
+            writeEscaped(givenName);
+        }
+
+        if (name.last() != null) {
+            output.write(" /");
+            writeEscaped(name.last());
+            output.write('/');
+        }
+
+        output.write('\n');
+
+        if (givenName != null) {
+            writeText(2, "GIVN", givenName);
+        }
+
+        if (name.last() != null) {
+            writeText(2, "SURN", name.last());
+        }
+    }
+
+    private void writeFamily(Family family) throws IOException {
+
+        output.write("0 @F").write(family.key()).write("@ FAM\n");
+
+        String[] spouseIds = getSpouseIds(family);
+
+        if (spouseIds[0] != null) {
+            writeIndividualPointer("HUSB", spouseIds[0]);
+        }
+
+        if (spouseIds[1] != null) {
+            writeIndividualPointer("WIFE", spouseIds[1]);
+        }
+
+        Set<String> childIdSet = new HashSet<>();
+
+        for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+            if (!pedigreeLink.isParent() && childIdSet.add(getCanonicalId(pedigreeLink.individualId()))) {
+                writeIndividualPointer("CHIL", pedigreeLink.individualId());
+            }
+        }
+
+        if (family.familyEventList() != null) {
+            for (FamilyEvent familyEvent : family.familyEventList()) {
+                String tag = (familyEvent.type() == FamilyEvent.DIVORCE) ? "DIV" : "MARR";
+                writeEvent(tag, familyEvent.date(), familyEvent.place(), familyEvent.comment(), true);
+            }
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        output.write("0 TRLR\n");
+        output.flush();
+    }
+
+    private void writeIndividualPointer(String tag, String individualId) throws IOException {
+        output.write("1 ").write(tag).write(" @I").write(getIndividualKey(getCanonicalId(individualId))).write("@\n");
+    }
+
+    // parents of unknown or the same gender fill the remaining of both spouse slots
+    private static String[] getSpouseIds(Family family) {
+
+        String[] spouseIds = {family.fatherId(), family.motherId()};
+
+        for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+            String individualId = pedigreeLink.individualId();
+            if (pedigreeLink.isParent() && !individualId.equals(spouseIds[0]) && !individualId.equals(spouseIds[1])) {
+                if (spouseIds[0] == null) {
+                    spouseIds[0] = individualId;
+                } else if (spouseIds[1] == null) {
+                    spouseIds[1] = individualId;
+                }
+            }
+        }
+
+        return spouseIds;
+    }
+
+    private String getCanonicalId(String individualId) {
+        return individualIdMap.getOrDefault(individualId, individualId);
+    }
+
+    private int getFirstLinkIndex(int key) {
+
+        int index = Arrays.binarySearch(links, (long) key << 32);
+
+        return (index < 0) ? -index - 1 : index;
+    }
+
+    private void writeEvent(String tag, EventDate eventDate, boolean occurred) throws IOException {
+        if (eventDate != null) {
+            writeEvent(tag, eventDate.date(), eventDate.place(), eventDate.comment(), occurred);
+        } else if (occurred) {
+            writeLine(1, tag, "Y");
+        }
+    }
+
+    private void writeEvent(String tag, GenoDate date, String place, String comment, boolean occurred)
+            throws IOException {
+
+        boolean hasDate = date != null && date.date() != null;
+        boolean hasPlace = place != null && !place.isEmpty();
+        boolean hasComment = comment != null && !comment.isEmpty();
+
+        if (!hasDate && !hasPlace && !hasComment) {
+            if (occurred) {
+                writeLine(1, tag, "Y");
+            }
+            return;
+        }
+
+        writeLine(1, tag);
+
+        if (hasDate) {
+            writeDate(date);
+        }
+
+        if (hasPlace) {
+            writePlace(place);
+        }
+
+        if (hasComment) {
+            writeText(2, "NOTE", comment);
+        }
+    }
+
+    private void writeDate(GenoDate date) throws IOException {
+
+        String text = date.date();
+        int start = 0;
+
+        output.write("2 DATE ");
+
+        if (date.prefix() != null && !date.prefix().isEmpty()) {
+            output.write(switch (date.prefix()) {
+                case "<" -> "BEF ";
+                case ">" -> "AFT ";
+                default -> "ABT ";
+            });
+            start = date.prefix().length();
+        }
+
+        for (int i = start; i < text.length(); i++) {
+            output.write(Character.toUpperCase(text.charAt(i)));
+        }
+
+        output.write('\n');
+    }
+
+    private void writePlace(String placeName) throws IOException {
+
+        writeText(2, "PLAC", getPlacePath(placeName));
+
+        Place place = placeNameMap.get(placeName);
+
+        if (place != null && place.latitude() != null && place.longitude() != null) {
+            writeLine(3, "MAP");
+            output.write("4 LATI ");
+            writeCoordinate(place.latitude(), 'N', 'S');
+            output.write("4 LONG ");
+            writeCoordinate(place.longitude(), 'E', 'W');
+        }
+    }
+
+    // GEDCOM lists jurisdictions from the smallest to the largest one, e.g. "Prague, Bohemia"
+    private String getPlacePath(String placeName) {
+
+        String placePath = placePathMap.get(placeName);
+
+        if (placePath == null) {
+
+            StringBuilder placePathBuilder = new StringBuilder(placeName);
+            Place place = placeNameMap.get(placeName);
+            Set<String> visitedIdSet = new HashSet<>();
+
+            while (place != null && place.parentId() != null && visitedIdSet.add(place.id())) {
+                place = placeMap.get(place.parentId());
+                if (place != null && place.name() != null) {
+                    placePathBuilder.append(", ").append(place.name());
+                }
+            }
+
+            placePath = placePathBuilder.toString();
+            placePathMap.put(placeName, placePath);
+        }
+
+        return placePath;
+    }
+
+    private void writeCoordinate(double value, char positivePrefix, char negativePrefix) throws IOException {
+        output.write((value < 0) ? negativePrefix : positivePrefix)
+                .write(BigDecimal.valueOf(Math.abs(value)).toPlainString()).write('\n');
+    }
+
+    private void writeLine(int level, String tag) throws IOException {
+        output.write(level).write(' ').write(tag).write('\n');
+    }
+
+    private void writeLine(int level, String tag, String value) throws IOException {
+        output.write(level).write(' ').write(tag).write(' ').write(value).write('\n');
+    }
+
+    // line breaks continue on CONT lines, GEDCOM 5.5.1 also splits long lines into CONC lines
+    private void writeText(int level, String tag, String text) throws IOException {
+
+        int lineStart = 0;
+
+        for (int i = 0; i <= text.length(); i++) {
+
+            if (i == text.length() || text.charAt(i) == '\n') {
+
+                int lineEnd = (i > lineStart && text.charAt(i - 1) == '\r') ? i - 1 : i;
+
+                if (lineStart == 0) {
+                    output.write(level).write(' ').write(tag);
+                } else {
+                    output.write(level + 1).write(" CONT");
+                }
+
+                writeValue(level, text, lineStart, lineEnd);
+                output.write('\n');
+
+                lineStart = i + 1;
+            }
+        }
+    }
+
+    private void writeValue(int level, String text, int start, int end) throws IOException {
+
+        if (start == end) {
+            return;
+        }
+
+        output.write(' ');
+
+        if (gedcomVersion == GedcomVersion.V5_5_1) {
+            while (end - start > MAX_LINE_LENGTH) {
+                int splitIndex = start + MAX_LINE_LENGTH;
+                // neither a space nor a surrogate pair may be split, as CONC values are simply concatenated
+                while (splitIndex > start + 1 && (text.charAt(splitIndex) == ' '
+                        || text.charAt(splitIndex - 1) == ' ' || Character.isLowSurrogate(text.charAt(splitIndex)))) {
+                    splitIndex--;
+                }
+                writeEscaped(text, start, splitIndex);
+                output.write('\n').write(level + 1).write(" CONC ");
+                start = splitIndex;
+            }
+        }
+
+        writeEscaped(text, start, end);
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        writeEscaped(text, 0, text.length());
+    }
+
+    // GEDCOM 5.5.1 doubles every @, GEDCOM 7 just the leading one
+    private void writeEscaped(String text, int start, int end) throws IOException {
+
+        if (gedcomVersion == GedcomVersion.V7) {
+            if (start < end && text.charAt(start) == '@') {
+                output.write('@');
+            }
+            output.write(text, start, end);
+            return;
+        }
+
+        int segmentStart = start;
+
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '@') {
+                output.write(text, segmentStart, i + 1).write('@');
+                segmentStart = i + 1;
+            }
+        }
+
+        output.write(text, segmentStart, end);
+    }
+
+    private static int getIndividualKey(String individualId) {
+        return Integer.parseInt(individualId.replace("ind", ""));
+    }
+
+}
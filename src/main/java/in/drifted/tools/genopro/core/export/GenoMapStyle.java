@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.export;
+
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.model.PedigreeLinkType;
+import in.drifted.tools.genopro.core.model.Position;
+import in.drifted.tools.genopro.core.model.Size;
+
+/**
+ * Drawing rules shared by all GenoMap renderers. Coordinates are GenoPro
+ * coordinates with the y-axis flipped, so y grows downwards.
+ */
+final class GenoMapStyle {
+
+    static final int DEFAULT_HALF_SIZE = 20;
+    static final int LINE_WIDTH = 2;
+    static final int NAME_FONT_SIZE = 10;
+
+    private static final int[] FONT_SIZES = {6, 8, 10, 12, 14, 18, 24, 36};
+    private static final int[] BORDER_WIDTHS = {1, 1, 2, 3, 4, 6, 8, 10};
+
+    @FunctionalInterface
+    interface LineConsumer<E extends Exception> {
+
+        void accept(int x1, int y1, int x2, int y2) throws E;
+    }
+
+    private GenoMapStyle() {
+    }
+
+    static int getFontSize(Size size) {
+        return FONT_SIZES[size.ordinal()];
+    }
+
+    static int getBorderWidth(Size size) {
+        return BORDER_WIDTHS[size.ordinal()];
+    }
+
+    static int getLineHeight(int fontSize) {
+        return fontSize + fontSize / 5;
+    }
+
+    static int getAscent(int fontSize) {
+        return fontSize - fontSize / 5;
+    }
+
+    /**
+     * Passes all lines of the family to the consumer: the line connecting
+     * parents, the line to each parent, the line connecting children, the
+     * line between both, and the line to each child or twins. Lines to
+     * adopted children are passed separately.
+     */
+    static <E extends Exception> void forEachLine(Family family, boolean adopted, LineConsumer<E> lineConsumer)
+            throws E {
+
+        Position position = family.position();
+
+        if (position == null) {
+            return;
+        }
+
+        int topY = (family.topBoundaryRect() != null) ? family.topBoundaryRect().topLeft().y() : position.y();
+        int bottomY = (family.bottomBoundaryRect() != null)
+                ? family.bottomBoundaryRect().topLeft().y() : position.y();
+
+        if (adopted) {
+            for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+                if (pedigreeLink.position() != null && pedigreeLink.pedigreeLinkType() == PedigreeLinkType.ADOPTED) {
+                    acceptChildLine(pedigreeLink, bottomY, lineConsumer);
+                }
+            }
+            return;
+        }
+
+        if (family.topBoundaryRect() != null) {
+            acceptLine(family.topBoundaryRect().topLeft(), family.topBoundaryRect().bottomRight(), lineConsumer);
+        }
+
+        boolean hasChildren = false;
+
+        for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+            Position linkPosition = pedigreeLink.position();
+            if (linkPosition != null) {
+                if (pedigreeLink.isParent()) {
+                    lineConsumer.accept(linkPosition.x(), -linkPosition.y(), linkPosition.x(), -topY);
+                } else if (pedigreeLink.pedigreeLinkType() != PedigreeLinkType.ADOPTED) {
+                    acceptChildLine(pedigreeLink, bottomY, lineConsumer);
+                    hasChildren = true;
+                }
+            }
+        }
+
+        if (family.bottomBoundaryRect() != null) {
+            acceptLine(family.bottomBoundaryRect().topLeft(), family.bottomBoundaryRect().bottomRight(), lineConsumer);
+            hasChildren = true;
+        }
+
+        if (hasChildren) {
+            lineConsumer.accept(position.x(), -position.y(), position.x(), -bottomY);
+        }
+    }
+
+    static boolean hasAdoptedChildren(Family family) {
+
+        if (family.position() != null) {
+            for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+                if (pedigreeLink.position() != null && pedigreeLink.pedigreeLinkType() == PedigreeLinkType.ADOPTED) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static <E extends Exception> void acceptChildLine(PedigreeLink pedigreeLink, int bottomY,
+            LineConsumer<E> lineConsumer) throws E {
+
+        Position position = pedigreeLink.position();
+        int x = (pedigreeLink.twinPosition() != null) ? pedigreeLink.twinPosition().x() : position.x();
+
+        lineConsumer.accept(x, -bottomY, position.x(), -position.y());
+    }
+
+    private static <E extends Exception> void acceptLine(Position from, Position to, LineConsumer<E> lineConsumer)
+            throws E {
+        lineConsumer.accept(from.x(), -from.y(), to.x(), -to.y());
+    }
+
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.export;
+
+import in.drifted.tools.genopro.core.model.Alignment;
+import in.drifted.tools.genopro.core.model.BoundaryRect;
+import in.drifted.tools.genopro.core.model.Color;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyRelationType;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Label;
+import in.drifted.tools.genopro.core.model.LabelStyle;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.Position;
+import in.drifted.tools.genopro.core.model.Rect;
+import in.drifted.tools.genopro.core.model.Size;
+import in.drifted.tools.genopro.core.util.GlyphAdvanceTextMeasurer;
+import in.drifted.tools.genopro.core.util.TextWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static in.drifted.tools.genopro.core.export.GenoMapStyle.*;
+
+/**
+ * Streaming SVG writer of a single GenoMap. Entities are written to the
+ * output as soon as they are passed in, so the memory used does not depend
+ * on the GenoMap size.
+ * <p>
+ * Shapes are painted in the order they are written. To keep family lines
+ * below individual symbols, write families first, then individuals and
+ * finally labels in the ascending z-order. GenoPro coordinates are used as
+ * they are, just the y-axis is flipped. Individuals and families are styled
+ * via CSS classes ({@code individual}, {@code male}, {@code female},
+ * {@code deceased}, {@code hyperlinked}, {@code family}, {@code separation},
+ * {@code adopted}), labels carry their own styles.
+ */
+public class GenoMapSvgWriter {
+
+    private static final String STYLE_SHEET
+            = ".family{fill:none;stroke:#000;stroke-width:" + LINE_WIDTH + "}"
+            + ".separation{stroke-dasharray:8 4}"
+            + ".adopted{stroke-dasharray:4 4}"
+            + ".individual .symbol{fill:#fff;stroke:#000;stroke-width:" + LINE_WIDTH + "}"
+            + ".individual .cross{fill:none;stroke:#000;stroke-width:" + LINE_WIDTH + "}"
+            + ".hyperlinked .symbol{stroke:#888;stroke-dasharray:4 2}"
+            + ".individual text{font-family:sans-serif;font-size:" + NAME_FONT_SIZE + "px;text-anchor:middle}"
+            + ".label text{font-family:sans-serif}";
+
+    private final CharOutput output;
+    private final TextWrapper textWrapper;
+    private final GlyphAdvanceTextMeasurer[] textMeasurers = new GlyphAdvanceTextMeasurer[Size.values().length];
+
+    /**
+     * Creates the writer which wraps label texts using the bundled
+     * sans-serif glyph advance table.
+     *
+     * @param writer target writer, not closed by this writer
+     */
+    public GenoMapSvgWriter(Writer writer) {
+        this(writer, new TextWrapper(256), GlyphAdvanceTextMeasurer.getDefault(getFontSize(Size.M)));
+    }
+
+    /**
+     * Creates the writer using the given text wrapper and the text measurer
+     * which is scaled to the label font sizes.
+     *
+     * @param writer target writer, not closed by this writer
+     * @param textWrapper text wrapper used for label texts
+     * @param textMeasurer text measurer of any font size
+     */
+    public GenoMapSvgWriter(Writer writer, TextWrapper textWrapper, GlyphAdvanceTextMeasurer textMeasurer) {
+
+        this.output = new CharOutput(writer);
+        this.textWrapper = textWrapper;
+
+        for (Size size : Size.values()) {
+            textMeasurers[size.ordinal()] = textMeasurer.withFontSize(getFontSize(size));
+        }
+    }
+
+    /**
+     * Writes the complete SVG document of the GenoMap. Families are written
+     * first, then individuals and finally labels sorted by the z-index.
+     *
+     * @param genoMapData GenoMap data
+     * @param writer target writer, flushed, but not closed
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(GenoMapData genoMapData, Writer writer) throws IOException {
+
+        GenoMapSvgWriter svgWriter = new GenoMapSvgWriter(writer);
+
+        svgWriter.writeStart(genoMapData.genoMap());
+
+        for (Family family : genoMapData.familySet()) {
+            svgWriter.writeFamily(family);
+        }
+
+        for (Individual individual : genoMapData.individualSet()) {
+            svgWriter.writeIndividual(individual);
+        }
+
+        List<Label> labelList = new ArrayList<>(genoMapData.labelSet());
+        labelList.sort(Comparator.comparingInt(Label::zIndex));
+
+        for (Label label : labelList) {
+            svgWriter.writeLabel(label);
+        }
+
+        svgWriter.writeEnd();
+    }
+
+    /**
+     * Writes the complete SVG document of the GenoMap in UTF-8.
+     *
+     * @param genoMapData GenoMap data
+     * @param outputStream target stream, flushed, but not closed
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(GenoMapData genoMapData, OutputStream outputStream) throws IOException {
+        write(genoMapData, new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the root element. The view box matches the GenoMap boundary
+     * rectangle, if available.
+     *
+     * @param genoMap GenoMap
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeStart(GenoMap genoMap) throws IOException {
+
+        output.write("<svg xmlns=\"http://www.w3.org/2000/svg\"");
+
+        BoundaryRect boundaryRect = (genoMap != null) ? genoMap.boundaryRect() : null;
+
+        if (boundaryRect != null) {
+            Rect rect = Rect.fromBoundaryRect(boundaryRect);
+            output.write(" viewBox=\"").write(rect.x()).write(' ').write(-rect.y()).write(' ')
+                    .write(rect.width()).write(' ').write(rect.height()).write('"');
+        }
+
+        output.write(">\n");
+
+        if (genoMap != null && genoMap.title() != null && !genoMap.title().isEmpty()) {
+            output.write("<title>");
+            writeEscaped(genoMap.title());
+            output.write("</title>\n");
+        }
+
+        output.write("<style>").write(STYLE_SHEET).write("</style>\n");
+    }
+
+    /**
+     * Writes the family lines: the line connecting parents, the line to
+     * children and the lines to each child or twins. Families without
+     * geometry are skipped.
+     *
+     * @param family family
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeFamily(Family family) throws IOException {
+
+        if (family.position() == null) {
+            return;
+        }
+
+        output.write("<path id=\"");
+        writeEscaped(family.id());
+        output.write("\" class=\"family");
+
+        if (family.familyRelationType() == FamilyRelationType.SEPARATION
+                || family.familyRelationType() == FamilyRelationType.DIVORCE) {
+            output.write(" separation");
+        }
+
+        output.write("\" d=\"");
+        GenoMapStyle.forEachLine(family, false, this::writeLine);
+        output.write("\"/>\n");
+
+        if (GenoMapStyle.hasAdoptedChildren(family)) {
+            output.write("<path class=\"family adopted\" d=\"");
+            GenoMapStyle.forEachLine(family, true, this::writeLine);
+            output.write("\"/>\n");
+        }
+    }
+
+    /**
+     * Writes the individual symbol, the name below it and the cross over the
+     * symbol of deceased individuals. Individuals without geometry are
+     * skipped.
+     *
+     * @param individual individual
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeIndividual(Individual individual) throws IOException {
+
+        Position position = individual.position();
+
+        if (position == null) {
+            return;
+        }
+
+        int left;
+        int top;
+        int width;
+        int height;
+
+        if (individual.boundaryRect() != null) {
+            Rect rect = Rect.fromBoundaryRect(individual.boundaryRect());
+            left = rect.x();
+            top = -rect.y();
+            width = rect.width();
+            height = rect.height();
+        } else {
+            left = position.x() - DEFAULT_HALF_SIZE;
+            top = -position.y() - DEFAULT_HALF_SIZE;
+            width = 2 * DEFAULT_HALF_SIZE;
+            height = 2 * DEFAULT_HALF_SIZE;
+        }
+
+        output.write("<g id=\"");
+        writeEscaped(individual.id());
+        output.write("\" class=\"individual");
+
+        if (individual.isMale()) {
+            output.write(" male");
+        } else if (individual.isFemale()) {
+            output.write(" female");
+        }
+
+        if (individual.isDeceased()) {
+            output.write(" deceased");
+        }
+
+        if (individual.hyperlink() != null) {
+            output.write(" hyperlinked");
+        }
+
+        output.write("\">");
+
+        if (individual.isMale() || individual.isFemale()) {
+            output.write("<rect class=\"symbol\" x=\"").write(left).write("\" y=\"").write(top)
+                    .write("\" width=\"").write(width).write("\" height=\"").write(height).write('"');
+            if (individual.isFemale()) {
+                output.write(" rx=\"").write(width / 2).write("\" ry=\"").write(height / 2).write('"');
+            }
+            output.write("/>");
+
+        } else {
+            output.write("<path class=\"symbol\" d=\"M").write(left + width / 2).write(' ').write(top)
+                    .write('L').write(left + width).write(' ').write(top + height / 2)
+                    .write('L').write(left + width / 2).write(' ').write(top + height)
+                    .write('L').write(left).write(' ').write(top + height / 2).write("Z\"/>");
+        }
+
+        if (individual.isDeceased()) {
+            output.write("<path class=\"cross\" d=\"M").write(left).write(' ').write(top)
+                    .write('L').write(left + width).write(' ').write(top + height)
+                    .write('M').write(left + width).write(' ').write(top)
+                    .write('L').write(left).write(' ').write(top + height).write("\"/>");
+        }
+
+        Name name = individual.name();
+
+        if (name != null && (name.first() != null || name.last() != null)) {
+            output.write("<text x=\"").write(left + width / 2).write("\" y=\"")
+                    .write(top + height + NAME_FONT_SIZE + 2).write("\">");
+            if (name.first() != null) {
+                writeEscaped(name.first());
+            }
+            if (name.first() != null && name.last() != null) {
+                output.write(' ');
+            }
+            if (name.last() != null) {
+                writeEscaped(name.last());
+            }
+            output.write("</text>");
+        }
+
+        output.write("</g>\n");
+    }
+
+    /**
+     * Writes the label box and its text wrapped to the box width. Labels
+     * without geometry are skipped, labels without styling are written as
+     * plain centered text.
+     *
+     * @param label text label
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeLabel(Label label) throws IOException {
+
+        Rect rect = label.rect();
+
+        if (rect == null) {
+            return;
+        }
+
+        LabelStyle labelStyle = label.labelStyle();
+
+        int left = rect.x();
+        int top = -rect.y();
+        Size size = (labelStyle != null) ? labelStyle.size() : Size.M;
+        int fontSize = getFontSize(size);
+        int padding = (labelStyle != null) ? labelStyle.padding() : 0;
+        Alignment horizontalAlignment = (labelStyle != null) ? labelStyle.horizontalAlignment() : Alignment.CENTER;
+        Alignment verticalAlignment = (labelStyle != null) ? labelStyle.verticalAlignment() : Alignment.CENTER;
+
+        output.write("<g class=\"label\">");
+
+        if (labelStyle != null) {
+            output.write("<rect x=\"").write(left).write("\" y=\"").write(top)
+                    .write("\" width=\"").write(rect.width()).write("\" height=\"").write(rect.height()).write('"');
+            writeColor("fill", labelStyle.fillColor());
+            if (labelStyle.border() != null) {
+                writeColor("stroke", labelStyle.border().color());
+                output.write(" stroke-width=\"").write(getBorderWidth(labelStyle.border().size())).write('"');
+                if (!"-".equals(labelStyle.border().pattern())) {
+                    output.write(" stroke-dasharray=\"6 3\"");
+                }
+            }
+            output.write("/>");
+        }
+
+        List<String> lineList = textWrapper.getWrappedLineList(
+                label.text(), rect.width() - 2 * padding, textMeasurers[size.ordinal()]);
+
+        int lineHeight = getLineHeight(fontSize);
+        int blockHeight = lineList.size() * lineHeight;
+
+        int y = switch (verticalAlignment) {
+            case TOP -> top + padding;
+            case BOTTOM -> top + rect.height() - padding - blockHeight;
+            default -> top + (rect.height() - blockHeight) / 2;
+        };
+
+        int x;
+        String textAnchor;
+
+        switch (horizontalAlignment) {
+            case LEFT -> {
+                x = left + padding;
+                textAnchor = "start";
+            }
+            case RIGHT -> {
+                x = left + rect.width() - padding;
+                textAnchor = "end";
+            }
+            default -> {
+                x = left + rect.width() / 2;
+                textAnchor = "middle";
+            }
+        }
+
+        output.write("<text font-size=\"").write(fontSize).write("\" text-anchor=\"").write(textAnchor).write('"');
+
+        if (labelStyle != null) {
+            writeColor("fill", labelStyle.textColor());
+        }
+
+        output.write('>');
+
+        int baseline = y + getAscent(fontSize);
+
+        for (String line : lineList) {
+            output.write("<tspan x=\"").write(x).write("\" y=\"").write(baseline).write("\">");
+            writeEscaped(line);
+            output.write("</tspan>");
+            baseline += lineHeight;
+        }
+
+        output.write("</text></g>\n");
+    }
+
+    /**
+     * Writes the end of the document and flushes the output.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeEnd() throws IOException {
+        output.write("</svg>\n");
+        output.flush();
+    }
+
+    private void writeLine(int x1, int y1, int x2, int y2) throws IOException {
+        output.write('M').write(x1).write(' ').write(y1).write('L').write(x2).write(' ').write(y2);
+    }
+
+    private void writeColor(String attributeName, Color color) throws IOException {
+
+        output.write(' ').write(attributeName).write("=\"");
+
+        if (color == null || color.a() == 0) {
+            output.write("none\"");
+
+        } else {
+            output.write('#');
+            writeHexByte(color.r());
+            writeHexByte(color.g());
+            writeHexByte(color.b());
+            output.write('"');
+
+            if (color.a() < 1) {
+                output.write(' ').write(attributeName).write("-opacity=\"").writeFraction(color.a()).write('"');
+            }
+        }
+    }
+
+    private void writeHexByte(int value) throws IOException {
+        output.write(Character.forDigit((value >> 4) & 0xf, 16)).write(Character.forDigit(value & 0xf, 16));
+    }
+
+    private void writeEscaped(String text) throws IOException {
+
+        int start = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> null;
+            };
+
+            if (entity != null) {
+                output.write(text, start, i).write(entity);
+                start = i + 1;
+            }
+        }
+
+        output.write(text, start, text.length());
+    }
+
+}
@@ -0,0 +1,771 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.export;
+
+import in.drifted.tools.genopro.core.model.Alignment;
+import in.drifted.tools.genopro.core.model.BoundaryRect;
+import in.drifted.tools.genopro.core.model.DocumentEntity;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyRelationType;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Label;
+import in.drifted.tools.genopro.core.model.LabelStyle;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.Rect;
+import in.drifted.tools.genopro.core.model.Size;
+import in.drifted.tools.genopro.core.util.FontMetricsTextMeasurer;
+import in.drifted.tools.genopro.core.util.TextWrapper;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import javax.imageio.ImageIO;
+
+import static in.drifted.tools.genopro.core.export.GenoMapStyle.*;
+
+/**
+ * Renders GenoMaps into a pyramid of square PNG tiles stored as
+ * {@code zoom/x/y.png}. At zoom level 0 the whole GenoMap fits a single
+ * tile, each next level doubles the scale, the last level draws one GenoPro
+ * unit as (at least) one pixel. At low zoom levels individuals are drawn as
+ * dots and labels are left out. Tiles of each level are rendered in
+ * parallel, empty tiles are not written.
+ * <p>
+ * Tiles are aligned to the GenoMap boundary rectangle, so after the GenoMap
+ * is modified, just tiles covering changed entities can be rendered again,
+ * as long as the boundary rectangle remains the same.
+ * <p>
+ * Using this renderer requires the java.desktop module.
+ */
+public class GenoMapTileRenderer {
+
+    private static final int DEFAULT_TILE_SIZE = 256;
+    private static final double DETAIL_MIN_SCALE = 0.25;
+    private static final int FAMILY_ORDER = 0;
+    private static final int INDIVIDUAL_ORDER = 1;
+    private static final int LABEL_ORDER = 2;
+
+    private static final Color LINE_COLOR = Color.BLACK;
+    private static final Color HYPERLINK_COLOR = new Color(0x88, 0x88, 0x88);
+    private static final Color DOT_COLOR = new Color(0x44, 0x44, 0x44);
+    private static final Stroke LINE_STROKE = new BasicStroke(LINE_WIDTH);
+    private static final Stroke SEPARATION_STROKE = getDashedStroke(LINE_WIDTH, 8, 4);
+    private static final Stroke ADOPTED_STROKE = getDashedStroke(LINE_WIDTH, 4, 4);
+    private static final Stroke HYPERLINK_STROKE = getDashedStroke(LINE_WIDTH, 4, 2);
+
+    private static final Comparator<TileEntity> TILE_ENTITY_COMPARATOR
+            = Comparator.comparingInt(TileEntity::order).thenComparingInt(TileEntity::zIndex);
+
+    private final int tileSize;
+    private final Executor executor;
+    private final TextWrapper textWrapper = new TextWrapper(1024);
+    private final Font[] fonts = new Font[Size.values().length];
+    private final FontMetricsTextMeasurer[] textMeasurers = new FontMetricsTextMeasurer[Size.values().length];
+    private final Font nameFont;
+    private final FontMetrics nameFontMetrics;
+
+    private record Pyramid(int left, int top, int extent, int tileSize) {
+
+        double getScale(int zoom) {
+            return (double) tileSize * (1L << zoom) / extent;
+        }
+
+        int getTileCount(int zoom) {
+            return 1 << zoom;
+        }
+    }
+
+    private record TileEntity(DocumentEntity entity, int order, int zIndex, int minX, int minY, int maxX, int maxY) {
+    }
+
+    private record TileRange(int minX, int minY, int maxX, int maxY) {
+
+        boolean contains(int x, int y) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+        }
+    }
+
+    /**
+     * Creates the renderer of 256 px tiles using the common fork-join pool.
+     */
+    public GenoMapTileRenderer() {
+        this(DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the renderer.
+     *
+     * @param tileSize tile width and height in pixels
+     * @param executor executor rendering tiles of each zoom level
+     */
+    public GenoMapTileRenderer(int tileSize, Executor executor) {
+
+        this.tileSize = tileSize;
+        this.executor = executor;
+
+        Graphics2D graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+        try {
+            for (Size size : Size.values()) {
+                Font font = new Font(Font.SANS_SERIF, Font.PLAIN, getFontSize(size));
+                fonts[size.ordinal()] = font;
+                textMeasurers[size.ordinal()] = new FontMetricsTextMeasurer(graphics.getFontMetrics(font));
+            }
+            nameFont = new Font(Font.SANS_SERIF, Font.PLAIN, NAME_FONT_SIZE);
+            nameFontMetrics = graphics.getFontMetrics(nameFont);
+
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    /**
+     * Returns the highest zoom level of the GenoMap pyramid, i.e. the first
+     * level where one GenoPro unit is drawn as at least one pixel.
+     *
+     * @param genoMapData GenoMap data
+     * @return the highest zoom level
+     */
+    public int getMaxZoom(GenoMapData genoMapData) {
+        return getMaxZoom(getPyramid(genoMapData));
+    }
+
+    /**
+     * Renders the single tile.
+     *
+     * @param genoMapData GenoMap data
+     * @param zoom zoom level
+     * @param x tile column
+     * @param y tile row
+     * @return the tile image
+     */
+    public BufferedImage renderTile(GenoMapData genoMapData, int zoom, int x, int y) {
+
+        Pyramid pyramid = getPyramid(genoMapData);
+        boolean detailed = pyramid.getScale(zoom) >= DETAIL_MIN_SCALE;
+
+        List<TileEntity> tileEntityList = new ArrayList<>();
+
+        for (TileEntity tileEntity : getTileEntityList(genoMapData, detailed)) {
+            if (getTileRange(pyramid, zoom, tileEntity).contains(x, y)) {
+                tileEntityList.add(tileEntity);
+            }
+        }
+
+        return renderTile(pyramid, zoom, x, y, tileEntityList);
+    }
+
+    /**
+     * Renders all tiles of all zoom levels into the directory.
+     *
+     * @param genoMapData GenoMap data
+     * @param directory target directory
+     * @throws IOException if an I/O error occurs
+     */
+    public void renderTiles(GenoMapData genoMapData, Path directory) throws IOException {
+        renderTiles(genoMapData, directory, null);
+    }
+
+    /**
+     * Renders tiles of all zoom levels covering any of the changed entities
+     * into the directory. Changed entities have to include both previous and
+     * current versions of modified entities as well as removed entities, so
+     * their former locations are cleared. Tiles left empty are deleted.
+     *
+     * @param genoMapData current GenoMap data
+     * @param directory directory with previously rendered tiles
+     * @param changedEntities changed entities or null for rendering all tiles
+     * @throws IOException if an I/O error occurs
+     */
+    public void renderTiles(GenoMapData genoMapData, Path directory, Collection<? extends DocumentEntity> changedEntities)
+            throws IOException {
+
+        Pyramid pyramid = getPyramid(genoMapData);
+
+        List<TileEntity> changedTileEntityList = null;
+
+        if (changedEntities != null) {
+            changedTileEntityList = new ArrayList<>();
+            for (DocumentEntity entity : changedEntities) {
+                TileEntity tileEntity = getTileEntity(entity);
+                if (tileEntity != null) {
+                    changedTileEntityList.add(tileEntity);
+                }
+            }
+        }
+
+        List<TileEntity> detailedTileEntityList = null;
+        List<TileEntity> simplifiedTileEntityList = null;
+
+        for (int zoom = 0, maxZoom = getMaxZoom(pyramid); zoom <= maxZoom; zoom++) {
+
+            boolean detailed = pyramid.getScale(zoom) >= DETAIL_MIN_SCALE;
+
+            List<TileEntity> tileEntityList;
+
+            if (detailed) {
+                if (detailedTileEntityList == null) {
+                    detailedTileEntityList = getTileEntityList(genoMapData, true);
+                }
+                tileEntityList = detailedTileEntityList;
+            } else {
+                if (simplifiedTileEntityList == null) {
+                    simplifiedTileEntityList = getTileEntityList(genoMapData, false);
+                }
+                tileEntityList = simplifiedTileEntityList;
+            }
+
+            Set<Long> dirtyTileKeySet = null;
+
+            if (changedTileEntityList != null) {
+                dirtyTileKeySet = new HashSet<>();
+                for (TileEntity tileEntity : changedTileEntityList) {
+                    if (detailed || tileEntity.order() != LABEL_ORDER) {
+                        TileRange tileRange = getTileRange(pyramid, zoom, tileEntity);
+                        for (int x = tileRange.minX(); x <= tileRange.maxX(); x++) {
+                            for (int y = tileRange.minY(); y <= tileRange.maxY(); y++) {
+                                dirtyTileKeySet.add(getTileKey(x, y));
+                            }
+                        }
+                    }
+                }
+                if (dirtyTileKeySet.isEmpty()) {
+                    continue;
+                }
+            }
+
+            renderTiles(pyramid, zoom, getTileEntityListMap(pyramid, zoom, tileEntityList, dirtyTileKeySet),
+                    dirtyTileKeySet, directory);
+        }
+    }
+
+    private void renderTiles(Pyramid pyramid, int zoom, Map<Long, List<TileEntity>> tileEntityListMap,
+            Set<Long> dirtyTileKeySet, Path directory) throws IOException {
+
+        List<CompletableFuture<Void>> futureList = new ArrayList<>();
+
+        for (Map.Entry<Long, List<TileEntity>> entry : tileEntityListMap.entrySet()) {
+            long tileKey = entry.getKey();
+            List<TileEntity> tileEntityList = entry.getValue();
+            futureList.add(CompletableFuture.runAsync(() -> {
+                try {
+                    writeTile(renderTile(pyramid, zoom, getTileX(tileKey), getTileY(tileKey), tileEntityList),
+                            getTilePath(directory, zoom, tileKey));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        }
+
+        if (dirtyTileKeySet != null) {
+            for (long tileKey : dirtyTileKeySet) {
+                if (!tileEntityListMap.containsKey(tileKey)) {
+                    Files.deleteIfExists(getTilePath(directory, zoom, tileKey));
+                }
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futureList.toArray(CompletableFuture[]::new)).join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void writeTile(BufferedImage image, Path path) throws IOException {
+
+        Files.createDirectories(path.getParent());
+
+        if (!ImageIO.write(image, "png", path.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    private static Path getTilePath(Path directory, int zoom, long tileKey) {
+        return directory.resolve(Integer.toString(zoom)).resolve(Integer.toString(getTileX(tileKey)))
+                .resolve(getTileY(tileKey) + ".png");
+    }
+
+    private BufferedImage renderTile(Pyramid pyramid, int zoom, int x, int y, List<TileEntity> tileEntityList) {
+
+        BufferedImage image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+
+        try {
+            double scale = pyramid.getScale(zoom);
+
+            AffineTransform transform = new AffineTransform();
+            transform.translate(-(double) x * tileSize, -(double) y * tileSize);
+            transform.scale(scale, scale);
+            transform.translate(-pyramid.left(), -pyramid.top());
+
+            graphics.setTransform(transform);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+
+            List<TileEntity> sortedTileEntityList = new ArrayList<>(tileEntityList);
+            sortedTileEntityList.sort(TILE_ENTITY_COMPARATOR);
+
+            boolean detailed = scale >= DETAIL_MIN_SCALE;
+            Stroke pixelStroke = new BasicStroke((float) (1 / scale));
+
+            for (TileEntity tileEntity : sortedTileEntityList) {
+                switch (tileEntity.entity()) {
+                    case Family family -> drawFamily(graphics, family, detailed ? null : pixelStroke);
+                    case Individual individual -> {
+                        if (detailed) {
+                            drawIndividual(graphics, individual);
+                        } else {
+                            drawDot(graphics, individual, scale);
+                        }
+                    }
+                    case Label label -> drawLabel(graphics, label);
+                    default -> {
+                    }
+                }
+            }
+
+        } finally {
+            graphics.dispose();
+        }
+
+        return image;
+    }
+
+    private static void drawFamily(Graphics2D graphics, Family family, Stroke pixelStroke) {
+
+        Path2D.Double path = new Path2D.Double();
+        GenoMapStyle.forEachLine(family, false, (x1, y1, x2, y2) -> {
+            path.moveTo(x1, y1);
+            path.lineTo(x2, y2);
+        });
+
+        graphics.setColor(LINE_COLOR);
+
+        if (pixelStroke != null) {
+            graphics.setStroke(pixelStroke);
+        } else if (family.familyRelationType() == FamilyRelationType.SEPARATION
+                || family.familyRelationType() == FamilyRelationType.DIVORCE) {
+            graphics.setStroke(SEPARATION_STROKE);
+        } else {
+            graphics.setStroke(LINE_STROKE);
+        }
+
+        graphics.draw(path);
+
+        if (GenoMapStyle.hasAdoptedChildren(family)) {
+            Path2D.Double adoptedPath = new Path2D.Double();
+            GenoMapStyle.forEachLine(family, true, (x1, y1, x2, y2) -> {
+                adoptedPath.moveTo(x1, y1);
+                adoptedPath.lineTo(x2, y2);
+            });
+            graphics.setStroke((pixelStroke != null) ? pixelStroke : ADOPTED_STROKE);
+            graphics.draw(adoptedPath);
+        }
+    }
+
+    private void drawIndividual(Graphics2D graphics, Individual individual) {
+
+        Rectangle2D bounds = getSymbolBounds(individual);
+        Shape symbol;
+
+        if (individual.isMale()) {
+            symbol = bounds;
+        } else if (individual.isFemale()) {
+            symbol = new Ellipse2D.Double(bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+        } else {
+            Path2D.Double diamond = new Path2D.Double();
+            diamond.moveTo(bounds.getCenterX(), bounds.getMinY());
+            diamond.lineTo(bounds.getMaxX(), bounds.getCenterY());
+            diamond.lineTo(bounds.getCenterX(), bounds.getMaxY());
+            diamond.lineTo(bounds.getMinX(), bounds.getCenterY());
+            diamond.closePath();
+            symbol = diamond;
+        }
+
+        graphics.setColor(Color.WHITE);
+        graphics.fill(symbol);
+
+        if (individual.hyperlink() != null) {
+            graphics.setColor(HYPERLINK_COLOR);
+            graphics.setStroke(HYPERLINK_STROKE);
+        } else {
+            graphics.setColor(LINE_COLOR);
+            graphics.setStroke(LINE_STROKE);
+        }
+
+        graphics.draw(symbol);
+
+        if (individual.isDeceased()) {
+            Path2D.Double cross = new Path2D.Double();
+            cross.moveTo(bounds.getMinX(), bounds.getMinY());
+            cross.lineTo(bounds.getMaxX(), bounds.getMaxY());
+            cross.moveTo(bounds.getMaxX(), bounds.getMinY());
+            cross.lineTo(bounds.getMinX(), bounds.getMaxY());
+            graphics.setColor(LINE_COLOR);
+            graphics.setStroke(LINE_STROKE);
+            graphics.draw(cross);
+        }
+
+        String text = getNameText(individual);
+
+        if (text != null) {
+            graphics.setColor(LINE_COLOR);
+            graphics.setFont(nameFont);
+            graphics.drawString(text, (float) (bounds.getCenterX() - nameFontMetrics.stringWidth(text) / 2.0),
+                    (float) (bounds.getMaxY() + NAME_FONT_SIZE + 2));
+        }
+    }
+
+    private static void drawDot(Graphics2D graphics, Individual individual, double scale) {
+
+        Rectangle2D bounds = getSymbolBounds(individual);
+        double size = Math.max(Math.max(bounds.getWidth(), bounds.getHeight()), 2 / scale);
+
+        graphics.setColor(DOT_COLOR);
+        graphics.fill(new Ellipse2D.Double(
+                bounds.getCenterX() - size / 2, bounds.getCenterY() - size / 2, size, size));
+    }
+
+    private void drawLabel(Graphics2D graphics, Label label) {
+
+        Rect rect = label.rect();
+        LabelStyle labelStyle = label.labelStyle();
+
+        int left = rect.x();
+        int top = -rect.y();
+        Size size = (labelStyle != null) ? labelStyle.size() : Size.M;
+        int fontSize = getFontSize(size);
+        int padding = (labelStyle != null) ? labelStyle.padding() : 0;
+        Alignment horizontalAlignment = (labelStyle != null) ? labelStyle.horizontalAlignment() : Alignment.CENTER;
+        Alignment verticalAlignment = (labelStyle != null) ? labelStyle.verticalAlignment() : Alignment.CENTER;
+
+        if (labelStyle != null) {
+
+            Color fillColor = getColor(labelStyle.fillColor());
+
+            if (fillColor != null) {
+                graphics.setColor(fillColor);
+                graphics.fillRect(left, top, rect.width(), rect.height());
+            }
+
+            Color borderColor = (labelStyle.border() != null) ? getColor(labelStyle.border().color()) : null;
+
+            if (borderColor != null) {
+                int borderWidth = getBorderWidth(labelStyle.border().size());
+                graphics.setColor(borderColor);
+                graphics.setStroke("-".equals(labelStyle.border().pattern())
+                        ? new BasicStroke(borderWidth) : getDashedStroke(borderWidth, 6, 3));
+                graphics.drawRect(left, top, rect.width(), rect.height());
+            }
+        }
+
+        FontMetricsTextMeasurer textMeasurer = textMeasurers[size.ordinal()];
+        List<String> lineList = textWrapper.getWrappedLineList(label.text(), rect.width() - 2 * padding, textMeasurer);
+
+        int lineHeight = getLineHeight(fontSize);
+        int blockHeight = lineList.size() * lineHeight;
+
+        int y = switch (verticalAlignment) {
+            case TOP -> top + padding;
+            case BOTTOM -> top + rect.height() - padding - blockHeight;
+            default -> top + (rect.height() - blockHeight) / 2;
+        };
+
+        Color textColor = (labelStyle != null) ? getColor(labelStyle.textColor()) : LINE_COLOR;
+
+        if (textColor == null) {
+            return;
+        }
+
+        graphics.setColor(textColor);
+        graphics.setFont(fonts[size.ordinal()]);
+
+        int baseline = y + getAscent(fontSize);
+
+        for (String line : lineList) {
+
+            int lineWidth = textMeasurer.stringWidth(line);
+
+            int x = switch (horizontalAlignment) {
+                case LEFT -> left + padding;
+                case RIGHT -> left + rect.width() - padding - lineWidth;
+                default -> left + (rect.width() - lineWidth) / 2;
+            };
+
+            graphics.drawString(line, x, baseline);
+            baseline += lineHeight;
+        }
+    }
+
+    private static Color getColor(in.drifted.tools.genopro.core.model.Color color) {
+
+        if (color == null || color.a() == 0) {
+            return null;
+        }
+
+        return new Color(color.r(), color.g(), color.b(), (int) Math.round(color.a() * 255));
+    }
+
+    private static Stroke getDashedStroke(float width, float dash, float gap) {
+        return new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[]{dash, gap}, 0);
+    }
+
+    private static Rectangle2D getSymbolBounds(Individual individual) {
+
+        if (individual.boundaryRect() != null) {
+            Rect rect = Rect.fromBoundaryRect(individual.boundaryRect());
+            return new Rectangle2D.Double(rect.x(), -rect.y(), rect.width(), rect.height());
+        }
+
+        return new Rectangle2D.Double(individual.position().x() - DEFAULT_HALF_SIZE,
+                -individual.position().y() - DEFAULT_HALF_SIZE, 2 * DEFAULT_HALF_SIZE, 2 * DEFAULT_HALF_SIZE);
+    }
+
+    private static String getNameText(Individual individual) {
+
+        Name name = individual.name();
+
+        if (name == null || (name.first() == null && name.last() == null)) {
+            return null;
+        }
+
+        if (name.first() == null) {
+            return name.last();
+        }
+
+        return (name.last() == null) ? name.first() : name.first() + " " + name.last();
+    }
+
+    private List<TileEntity> getTileEntityList(GenoMapData genoMapData, boolean detailed) {
+
+        List<TileEntity> tileEntityList = new ArrayList<>();
+
+        for (Family family : genoMapData.familySet()) {
+            addTileEntity(tileEntityList, family);
+        }
+
+        for (Individual individual : genoMapData.individualSet()) {
+            addTileEntity(tileEntityList, individual);
+        }
+
+        if (detailed) {
+            for (Label label : genoMapData.labelSet()) {
+                addTileEntity(tileEntityList, label);
+            }
+        }
+
+        return tileEntityList;
+    }
+
+    private void addTileEntity(List<TileEntity> tileEntityList, DocumentEntity entity) {
+
+        TileEntity tileEntity = getTileEntity(entity);
+
+        if (tileEntity != null) {
+            tileEntityList.add(tileEntity);
+        }
+    }
+
+    // bounds include everything drawn for the entity, so tiles never cut off a part of it
+    private TileEntity getTileEntity(DocumentEntity entity) {
+
+        switch (entity) {
+
+            case Family family -> {
+
+                if (family.position() == null) {
+                    return null;
+                }
+
+                int[] bounds = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+                GenoMapStyle.LineConsumer<RuntimeException> lineConsumer = (x1, y1, x2, y2) -> {
+                    bounds[0] = Math.min(bounds[0], Math.min(x1, x2));
+                    bounds[1] = Math.min(bounds[1], Math.min(y1, y2));
+                    bounds[2] = Math.max(bounds[2], Math.max(x1, x2));
+                    bounds[3] = Math.max(bounds[3], Math.max(y1, y2));
+                };
+
+                GenoMapStyle.forEachLine(family, false, lineConsumer);
+                GenoMapStyle.forEachLine(family, true, lineConsumer);
+
+                if (bounds[0] > bounds[2]) {
+                    return null;
+                }
+
+                return new TileEntity(family, FAMILY_ORDER, 0, bounds[0] - LINE_WIDTH, bounds[1] - LINE_WIDTH,
+                        bounds[2] + LINE_WIDTH, bounds[3] + LINE_WIDTH);
+            }
+
+            case Individual individual -> {
+
+                if (individual.position() == null) {
+                    return null;
+                }
+
+                Rectangle2D bounds = getSymbolBounds(individual);
+                String text = getNameText(individual);
+                int textHalfWidth = (text != null) ? nameFontMetrics.stringWidth(text) / 2 + 1 : 0;
+                int halfWidth = Math.max((int) Math.ceil(bounds.getWidth() / 2) + LINE_WIDTH, textHalfWidth);
+                int centerX = (int) bounds.getCenterX();
+
+                return new TileEntity(individual, INDIVIDUAL_ORDER, 0, centerX - halfWidth,
+                        (int) bounds.getMinY() - LINE_WIDTH, centerX + halfWidth,
+                        (int) bounds.getMaxY() + LINE_WIDTH + NAME_FONT_SIZE + 2 + nameFontMetrics.getDescent());
+            }
+
+            case Label label -> {
+
+                Rect rect = label.rect();
+
+                if (rect == null) {
+                    return null;
+                }
+
+                int margin = (label.labelStyle() != null && label.labelStyle().border() != null)
+                        ? getBorderWidth(label.labelStyle().border().size()) : 0;
+
+                return new TileEntity(label, LABEL_ORDER, label.zIndex(), rect.x() - margin, -rect.y() - margin,
+                        rect.x() + rect.width() + margin, -rect.y() + rect.height() + margin);
+            }
+
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private Map<Long, List<TileEntity>> getTileEntityListMap(Pyramid pyramid, int zoom,
+            List<TileEntity> tileEntityList, Set<Long> tileKeySet) {
+
+        Map<Long, List<TileEntity>> tileEntityListMap = new HashMap<>();
+
+        for (TileEntity tileEntity : tileEntityList) {
+            TileRange tileRange = getTileRange(pyramid, zoom, tileEntity);
+            for (int x = tileRange.minX(); x <= tileRange.maxX(); x++) {
+                for (int y = tileRange.minY(); y <= tileRange.maxY(); y++) {
+                    long tileKey = getTileKey(x, y);
+                    if (tileKeySet == null || tileKeySet.contains(tileKey)) {
+                        tileEntityListMap.computeIfAbsent(tileKey, key -> new ArrayList<>()).add(tileEntity);
+                    }
+                }
+            }
+        }
+
+        return tileEntityListMap;
+    }
+
+    private TileRange getTileRange(Pyramid pyramid, int zoom, TileEntity tileEntity) {
+
+        double tileExtent = tileSize / pyramid.getScale(zoom);
+        int maxTile = pyramid.getTileCount(zoom) - 1;
+
+        return new TileRange(
+                getTileIndex(tileEntity.minX() - pyramid.left(), tileExtent, maxTile),
+                getTileIndex(tileEntity.minY() - pyramid.top(), tileExtent, maxTile),
+                getTileIndex(tileEntity.maxX() - pyramid.left(), tileExtent, maxTile),
+                getTileIndex(tileEntity.maxY() - pyramid.top(), tileExtent, maxTile));
+    }
+
+    private static int getTileIndex(double offset, double tileExtent, int maxTile) {
+        return (int) Math.max(0, Math.min(maxTile, Math.floor(offset / tileExtent)));
+    }
+
+    private static long getTileKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private static int getTileX(long tileKey) {
+        return (int) (tileKey >>> 32);
+    }
+
+    private static int getTileY(long tileKey) {
+        return (int) tileKey;
+    }
+
+    private Pyramid getPyramid(GenoMapData genoMapData) {
+
+        GenoMap genoMap = genoMapData.genoMap();
+        BoundaryRect boundaryRect = (genoMap != null) ? genoMap.boundaryRect() : null;
+
+        if (boundaryRect != null) {
+            Rect rect = Rect.fromBoundaryRect(boundaryRect);
+            return new Pyramid(rect.x(), -rect.y(), Math.max(1, Math.max(rect.width(), rect.height())), tileSize);
+        }
+
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        for (TileEntity tileEntity : getTileEntityList(genoMapData, true)) {
+            minX = Math.min(minX, tileEntity.minX());
+            minY = Math.min(minY, tileEntity.minY());
+            maxX = Math.max(maxX, tileEntity.maxX());
+            maxY = Math.max(maxY, tileEntity.maxY());
+        }
+
+        if (minX > maxX) {
+            return new Pyramid(0, 0, tileSize, tileSize);
+        }
+
+        return new Pyramid(minX, minY, Math.max(1, Math.max(maxX - minX, maxY - minY)), tileSize);
+    }
+
+    private int getMaxZoom(Pyramid pyramid) {
+
+        int zoom = 0;
+
+        while (pyramid.getScale(zoom) < 1 && zoom < 30) {
+            zoom++;
+        }
+
+        return zoom;
+    }
+
+}
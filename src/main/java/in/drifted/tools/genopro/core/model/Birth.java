@@ -15,7 +15,11 @@
  */
 package in.drifted.tools.genopro.core.model;
 
-public record Birth(GenoDate date, String comment) implements EventDate {
+public record Birth(GenoDate date, String placeId, String place, String comment) implements EventDate {
+
+    public Birth(GenoDate date, String comment) {
+        this(date, null, null, comment);
+    }
 
     @Override
     public boolean hasDate() {
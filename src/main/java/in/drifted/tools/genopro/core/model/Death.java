@@ -15,7 +15,11 @@
  */
 package in.drifted.tools.genopro.core.model;
 
-public record Death(GenoDate date, String comment) implements EventDate {
+public record Death(GenoDate date, String placeId, String place, String comment) implements EventDate {
+
+    public Death(GenoDate date, String comment) {
+        this(date, null, null, comment);
+    }
 
     @Override
     public boolean hasDate() {
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.model;
+
+import java.util.List;
+
+/**
+ * Basic document metadata. Counts of individuals, families and labels are
+ * -1 if they were not requested.
+ */
+public record DocumentSummary(
+        DocumentInfo documentInfo, List<GenoMap> genoMapList, int individualCount, int familyCount, int labelCount) {
+
+    public static final int NOT_COUNTED = -1;
+}
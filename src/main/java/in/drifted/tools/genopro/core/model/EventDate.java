@@ -21,6 +21,14 @@ public interface EventDate {
 
     public GenoDate date();
 
+    public default String placeId() {
+        return null;
+    }
+
+    public default String place() {
+        return null;
+    }
+
     public String comment();
 
 }
@@ -22,7 +22,7 @@ public record Family(
         FamilyRelationType familyRelationType, FamilyLineType familyLineType, List<FamilyEvent> familyEventList,
         List<PedigreeLink> pedigreeLinkList, Position position, BoundaryRect topBoundaryRect,
         BoundaryRect bottomBoundaryRect)
-        implements Comparable<Family> {
+        implements Comparable<Family>, FamilyView, DocumentEntity {
 
     @Override
     public int compareTo(Family family) {
@@ -15,9 +15,13 @@
  */
 package in.drifted.tools.genopro.core.model;
 
-public record FamilyEvent(int type, GenoDate date, String place, String comment) {
+public record FamilyEvent(int type, GenoDate date, String placeId, String place, String comment) {
 
     public static final int MARRIAGE = 0;
     public static final int DIVORCE = 1;
 
+    public FamilyEvent(int type, GenoDate date, String place, String comment) {
+        this(type, date, null, place, comment);
+    }
+
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.model;
+
+import java.util.List;
+
+public interface FamilyView {
+
+    public String id();
+
+    public int key();
+
+    public String fatherId();
+
+    public String motherId();
+
+    public GenoMap genoMap();
+
+    public String label();
+
+    public FamilyRelationType familyRelationType();
+
+    public FamilyLineType familyLineType();
+
+    public List<FamilyEvent> familyEventList();
+
+    public List<? extends PedigreeLinkView> pedigreeLinkList();
+
+    public Position position();
+
+    public BoundaryRect topBoundaryRect();
+
+    public BoundaryRect bottomBoundaryRect();
+
+}
@@ -15,5 +15,5 @@
  */
 package in.drifted.tools.genopro.core.model;
 
-public record GenoMap(String id, String name, String title, BoundaryRect boundaryRect) {
+public record GenoMap(String id, String name, String title, BoundaryRect boundaryRect) implements DocumentEntity {
 }
@@ -21,17 +21,19 @@ public record Individual(
         String id, int key, GenoMap genoMap, Hyperlink hyperlink, Name name, Gender gender,
         Birth birth, Death death, boolean isDeceased, boolean isAnonymized, Position position,
         BoundaryRect boundaryRect, Set<String> highlightKeySet)
-        implements Comparable<Individual> {
+        implements Comparable<Individual>, IndividualView, DocumentEntity {
 
     @Override
     public int compareTo(Individual individual) {
         return Integer.compare(this.key, individual.key);
     }
 
+    @Override
     public boolean isMale() {
         return gender == Gender.MALE;
     }
 
+    @Override
     public boolean isFemale() {
         return gender == Gender.FEMALE;
     }
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.model;
+
+import in.drifted.tools.genopro.core.util.PackedDateUtil;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented (struct-of-arrays) view of individuals intended for bulk
+ * statistics. Each individual occupies the same index in all columns. Dates
+ * are packed as yyyymmdd ints (see {@link PackedDateUtil}), names are
+ * dictionary-encoded and the returned column arrays are shared, so they must
+ * not be modified.
+ */
+public final class IndividualColumns {
+
+    public static final int FLAG_DECEASED = 1;
+    public static final int FLAG_ANONYMIZED = 1 << 1;
+    public static final int FLAG_HYPERLINKED = 1 << 2;
+    public static final int FLAG_BIRTH_YEAR_ONLY = 1 << 3;
+    public static final int FLAG_DEATH_YEAR_ONLY = 1 << 4;
+
+    public static final int NO_NAME = -1;
+
+    private final int size;
+    private final GenoMap[] genoMaps;
+    private final List<String> nameDictionary = new ArrayList<>();
+    private final int[] keys;
+    private final int[] genoMapOrdinals;
+    private final int[] genders;
+    private final int[] birthDates;
+    private final int[] deathDates;
+    private final int[] flags;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] firstNames;
+    private final int[] middleNames;
+    private final int[] lastNames;
+    private final int[] last2Names;
+
+    private IndividualColumns(int size, GenoMap[] genoMaps) {
+        this.size = size;
+        this.genoMaps = genoMaps;
+        this.keys = new int[size];
+        this.genoMapOrdinals = new int[size];
+        this.genders = new int[size];
+        this.birthDates = new int[size];
+        this.deathDates = new int[size];
+        this.flags = new int[size];
+        this.xs = new int[size];
+        this.ys = new int[size];
+        this.firstNames = new int[size];
+        this.middleNames = new int[size];
+        this.lastNames = new int[size];
+        this.last2Names = new int[size];
+    }
+
+    /**
+     * Returns the columnar representation of all individuals. The GenoMap
+     * ordinal refers to the position of the GenoMap in the given list.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @return the columnar representation of all individuals
+     */
+    public static IndividualColumns fromGenoMapDataList(List<GenoMapData> genoMapDataList) {
+
+        int size = 0;
+
+        GenoMap[] genoMaps = new GenoMap[genoMapDataList.size()];
+
+        for (int i = 0; i < genoMapDataList.size(); i++) {
+            GenoMapData genoMapData = genoMapDataList.get(i);
+            genoMaps[i] = genoMapData.genoMap();
+            size += genoMapData.individualSet().size();
+        }
+
+        IndividualColumns columns = new IndividualColumns(size, genoMaps);
+
+        Map<String, Integer> nameIndexMap = new HashMap<>();
+
+        int index = 0;
+
+        for (int ordinal = 0; ordinal < genoMapDataList.size(); ordinal++) {
+
+            List<Individual> individualList = new ArrayList<>(genoMapDataList.get(ordinal).individualSet());
+            individualList.sort(null);
+
+            for (Individual individual : individualList) {
+
+                columns.keys[index] = individual.key();
+                columns.genoMapOrdinals[index] = ordinal;
+                columns.genders[index] = individual.gender().ordinal();
+                columns.birthDates[index] = PackedDateUtil.pack(individual.birth());
+                columns.deathDates[index] = PackedDateUtil.pack(individual.death());
+                columns.flags[index] = getFlags(individual);
+
+                if (individual.position() != null) {
+                    columns.xs[index] = individual.position().x();
+                    columns.ys[index] = individual.position().y();
+                }
+
+                Name name = individual.name();
+
+                if (name != null) {
+                    columns.firstNames[index] = columns.getNameIndex(name.first(), nameIndexMap);
+                    columns.middleNames[index] = columns.getNameIndex(name.middle(), nameIndexMap);
+                    columns.lastNames[index] = columns.getNameIndex(name.last(), nameIndexMap);
+                    columns.last2Names[index] = columns.getNameIndex(name.last2(), nameIndexMap);
+
+                } else {
+                    columns.firstNames[index] = NO_NAME;
+                    columns.middleNames[index] = NO_NAME;
+                    columns.lastNames[index] = NO_NAME;
+                    columns.last2Names[index] = NO_NAME;
+                }
+
+                index++;
+            }
+        }
+
+        return columns;
+    }
+
+    private int getNameIndex(String name, Map<String, Integer> nameIndexMap) {
+
+        if (name == null) {
+            return NO_NAME;
+        }
+
+        Integer nameIndex = nameIndexMap.get(name);
+
+        if (nameIndex == null) {
+            nameIndex = nameDictionary.size();
+            nameIndexMap.put(name, nameIndex);
+            nameDictionary.add(name);
+        }
+
+        return nameIndex;
+    }
+
+    private static int getFlags(Individual individual) {
+
+        int flags = 0;
+
+        if (individual.isDeceased()) {
+            flags |= FLAG_DECEASED;
+        }
+
+        if (individual.isAnonymized()) {
+            flags |= FLAG_ANONYMIZED;
+        }
+
+        if (individual.hyperlink() != null) {
+            flags |= FLAG_HYPERLINKED;
+        }
+
+        if (individual.birth() != null && individual.birth().hasDate() && individual.birth().date().yearOnly()) {
+            flags |= FLAG_BIRTH_YEAR_ONLY;
+        }
+
+        if (individual.death() != null && individual.death().hasDate() && individual.death().date().yearOnly()) {
+            flags |= FLAG_DEATH_YEAR_ONLY;
+        }
+
+        return flags;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public GenoMap getGenoMap(int genoMapOrdinal) {
+        return genoMaps[genoMapOrdinal];
+    }
+
+    public String getName(int nameIndex) {
+        return (nameIndex == NO_NAME) ? null : nameDictionary.get(nameIndex);
+    }
+
+    public List<String> getNameDictionary() {
+        return Collections.unmodifiableList(nameDictionary);
+    }
+
+    public int[] getKeyColumn() {
+        return keys;
+    }
+
+    public int[] getGenoMapOrdinalColumn() {
+        return genoMapOrdinals;
+    }
+
+    public int[] getGenderColumn() {
+        return genders;
+    }
+
+    public int[] getBirthDateColumn() {
+        return birthDates;
+    }
+
+    public int[] getDeathDateColumn() {
+        return deathDates;
+    }
+
+    public int[] getFlagColumn() {
+        return flags;
+    }
+
+    public int[] getXColumn() {
+        return xs;
+    }
+
+    public int[] getYColumn() {
+        return ys;
+    }
+
+    public int[] getFirstNameColumn() {
+        return firstNames;
+    }
+
+    public int[] getMiddleNameColumn() {
+        return middleNames;
+    }
+
+    public int[] getLastNameColumn() {
+        return lastNames;
+    }
+
+    public int[] getLast2NameColumn() {
+        return last2Names;
+    }
+
+    /**
+     * Returns the number of individuals per gender.
+     *
+     * @return the array of counts indexed by the Gender ordinal
+     */
+    public int[] getGenderCounts() {
+
+        int[] genderCounts = new int[Gender.values().length];
+
+        for (int i = 0; i < size; i++) {
+            genderCounts[genders[i]]++;
+        }
+
+        return genderCounts;
+    }
+
+    /**
+     * Returns the histogram of birth years within the given range. Individuals
+     * without the birth date or born outside of the range are skipped.
+     *
+     * @param fromYear first year (inclusive)
+     * @param toYear last year (inclusive)
+     * @return the array of counts where index 0 represents fromYear
+     * @throws IllegalArgumentException if toYear precedes fromYear
+     */
+    public int[] getBirthYearHistogram(int fromYear, int toYear) {
+
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("Invalid year range: " + fromYear + " - " + toYear);
+        }
+
+        int[] histogram = new int[toYear - fromYear + 1];
+
+        for (int i = 0; i < size; i++) {
+            if (!PackedDateUtil.hasDate(birthDates[i])) {
+                continue;
+            }
+            int year = birthDates[i] / 10000;
+            if (year >= fromYear && year <= toYear) {
+                histogram[year - fromYear]++;
+            }
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Returns the lifespan of each individual in completed years. As dates
+     * are packed as yyyymmdd, the difference divided by 10000 equals the
+     * number of completed years, so no date objects are involved.
+     *
+     * @return the array of lifespans, -1 if birth or death date is unknown
+     */
+    public int[] getLifespanColumn() {
+
+        int[] lifespans = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            int birthDate = birthDates[i];
+            int deathDate = deathDates[i];
+            lifespans[i] = (birthDate != PackedDateUtil.NO_DATE && deathDate != PackedDateUtil.NO_DATE)
+                    ? (deathDate - birthDate) / 10000 : -1;
+        }
+
+        return lifespans;
+    }
+
+    /**
+     * Returns the average lifespan in completed years of all individuals
+     * having both birth and death dates.
+     *
+     * @return the average lifespan or NaN if no such individual exists
+     */
+    public double getAverageLifespan() {
+
+        long total = 0;
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            int birthDate = birthDates[i];
+            int deathDate = deathDates[i];
+            if (birthDate != PackedDateUtil.NO_DATE && deathDate != PackedDateUtil.NO_DATE) {
+                total += (deathDate - birthDate) / 10000;
+                count++;
+            }
+        }
+
+        return (count > 0) ? (double) total / count : Double.NaN;
+    }
+
+    /**
+     * Returns the number of individuals having all the given flags set.
+     *
+     * @param flagMask combination of FLAG_* constants
+     * @return the number of matching individuals
+     */
+    public int countFlags(int flagMask) {
+
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & flagMask) == flagMask) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+}
@@ -15,5 +15,6 @@
  */
 package in.drifted.tools.genopro.core.model;
 
-public record Label(GenoMap genoMap, String text, Rect rect, int zIndex, LabelStyle labelStyle) {
+public record Label(GenoMap genoMap, String text, Rect rect, int zIndex, LabelStyle labelStyle)
+        implements DocumentEntity {
 }
@@ -16,8 +16,10 @@
 package in.drifted.tools.genopro.core.model;
 
 public record PedigreeLink(
-        String individualId, PedigreeLinkType pedigreeLinkType, Position position, Position twinPosition) {
+        String individualId, PedigreeLinkType pedigreeLinkType, Position position, Position twinPosition)
+        implements PedigreeLinkView {
 
+    @Override
     public boolean isParent() {
         return pedigreeLinkType == PedigreeLinkType.PARENT;
     }
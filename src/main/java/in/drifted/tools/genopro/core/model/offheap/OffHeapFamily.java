@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.model.offheap;
+
+import in.drifted.tools.genopro.core.model.BoundaryRect;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyEvent;
+import in.drifted.tools.genopro.core.model.FamilyLineType;
+import in.drifted.tools.genopro.core.model.FamilyRelationType;
+import in.drifted.tools.genopro.core.model.FamilyView;
+import in.drifted.tools.genopro.core.model.GenoDate;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.model.Position;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import static in.drifted.tools.genopro.core.model.offheap.OffHeapStore.*;
+
+public final class OffHeapFamily implements FamilyView {
+
+    private static final FamilyRelationType[] FAMILY_RELATION_TYPES = FamilyRelationType.values();
+    private static final FamilyLineType[] FAMILY_LINE_TYPES = FamilyLineType.values();
+
+    private final OffHeapStore store;
+    private int index;
+
+    OffHeapFamily(OffHeapStore store) {
+        this.store = store;
+    }
+
+    public OffHeapFamily moveTo(int index) {
+        if (index < 0 || index >= store.getFamilyCount()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        this.index = index;
+        return this;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    private int getSlot(int slot) {
+        return getInt(store.familyBuffer, index, FAM_SIZE, slot);
+    }
+
+    private boolean hasFlag(int flag) {
+        return (getSlot(FAM_FLAGS) & flag) != 0;
+    }
+
+    @Override
+    public String id() {
+        return store.getString(getSlot(FAM_ID));
+    }
+
+    @Override
+    public int key() {
+        return getSlot(FAM_KEY);
+    }
+
+    @Override
+    public String fatherId() {
+        return store.getString(getSlot(FAM_FATHER_ID));
+    }
+
+    @Override
+    public String motherId() {
+        return store.getString(getSlot(FAM_MOTHER_ID));
+    }
+
+    @Override
+    public GenoMap genoMap() {
+        return store.getGenoMap(getSlot(FAM_GENOMAP));
+    }
+
+    @Override
+    public String label() {
+        return store.getString(getSlot(FAM_LABEL));
+    }
+
+    @Override
+    public FamilyRelationType familyRelationType() {
+        return FAMILY_RELATION_TYPES[getSlot(FAM_RELATION_TYPE)];
+    }
+
+    @Override
+    public FamilyLineType familyLineType() {
+        return FAMILY_LINE_TYPES[getSlot(FAM_LINE_TYPE)];
+    }
+
+    @Override
+    public List<FamilyEvent> familyEventList() {
+
+        int eventStart = getSlot(FAM_EVENT_START);
+        int eventCount = getSlot(FAM_EVENT_COUNT);
+
+        List<FamilyEvent> familyEventList = new ArrayList<>(eventCount);
+
+        for (int i = eventStart; i < eventStart + eventCount; i++) {
+            familyEventList.add(new FamilyEvent(
+                    getInt(store.eventBuffer, i, EVT_SIZE, EVT_TYPE),
+                    GenoDate.fromDate(store.getString(getInt(store.eventBuffer, i, EVT_SIZE, EVT_DATE))),
+                    store.getString(getInt(store.eventBuffer, i, EVT_SIZE, EVT_PLACE_ID)),
+                    store.getString(getInt(store.eventBuffer, i, EVT_SIZE, EVT_PLACE)),
+                    store.getString(getInt(store.eventBuffer, i, EVT_SIZE, EVT_COMMENT))));
+        }
+
+        return familyEventList;
+    }
+
+    /**
+     * Returns the list of pedigree link flyweights. The list is bound to the
+     * current family, so it must not be used after moving the flyweight.
+     *
+     * @return the list of pedigree links
+     */
+    @Override
+    public List<OffHeapPedigreeLink> pedigreeLinkList() {
+
+        int linkStart = getSlot(FAM_LINK_START);
+        int linkCount = getSlot(FAM_LINK_COUNT);
+
+        return new AbstractList<>() {
+
+            @Override
+            public OffHeapPedigreeLink get(int i) {
+                if (i < 0 || i >= linkCount) {
+                    throw new IndexOutOfBoundsException(i);
+                }
+                return new OffHeapPedigreeLink(store, linkStart + i);
+            }
+
+            @Override
+            public int size() {
+                return linkCount;
+            }
+        };
+    }
+
+    @Override
+    public Position position() {
+        return hasFlag(FLAG_HAS_POSITION) ? new Position(getSlot(FAM_X), getSlot(FAM_Y)) : null;
+    }
+
+    @Override
+    public BoundaryRect topBoundaryRect() {
+        return hasFlag(FLAG_HAS_TOP_BOUNDARY_RECT) ? getBoundaryRect(FAM_TOP_RECT) : null;
+    }
+
+    @Override
+    public BoundaryRect bottomBoundaryRect() {
+        return hasFlag(FLAG_HAS_BOTTOM_BOUNDARY_RECT) ? getBoundaryRect(FAM_BOTTOM_RECT) : null;
+    }
+
+    private BoundaryRect getBoundaryRect(int slot) {
+        return BoundaryRect.fromPoints(getSlot(slot), getSlot(slot + 1), getSlot(slot + 2), getSlot(slot + 3));
+    }
+
+    /**
+     * Returns the on-heap copy of the current family.
+     *
+     * @return the on-heap family
+     */
+    public Family toFamily() {
+
+        List<PedigreeLink> pedigreeLinkList = new ArrayList<>();
+
+        for (OffHeapPedigreeLink pedigreeLink : pedigreeLinkList()) {
+            pedigreeLinkList.add(pedigreeLink.toPedigreeLink());
+        }
+
+        return new Family(id(), key(), fatherId(), motherId(), genoMap(), label(), familyRelationType(),
+                familyLineType(), familyEventList(), pedigreeLinkList, position(), topBoundaryRect(),
+                bottomBoundaryRect());
+    }
+
+}
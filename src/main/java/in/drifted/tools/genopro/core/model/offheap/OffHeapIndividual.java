@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.model.offheap;
+
+import in.drifted.tools.genopro.core.model.Birth;
+import in.drifted.tools.genopro.core.model.BoundaryRect;
+import in.drifted.tools.genopro.core.model.Death;
+import in.drifted.tools.genopro.core.model.Gender;
+import in.drifted.tools.genopro.core.model.GenoDate;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.Hyperlink;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.IndividualView;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.Position;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static in.drifted.tools.genopro.core.model.offheap.OffHeapStore.*;
+
+public final class OffHeapIndividual implements IndividualView {
+
+    private static final Gender[] GENDERS = Gender.values();
+
+    private final OffHeapStore store;
+    private int index;
+
+    OffHeapIndividual(OffHeapStore store) {
+        this.store = store;
+    }
+
+    public OffHeapIndividual moveTo(int index) {
+        if (index < 0 || index >= store.getIndividualCount()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        this.index = index;
+        return this;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    private int getSlot(int slot) {
+        return getInt(store.individualBuffer, index, IND_SIZE, slot);
+    }
+
+    private boolean hasFlag(int flag) {
+        return (getSlot(IND_FLAGS) & flag) != 0;
+    }
+
+    @Override
+    public String id() {
+        return store.getString(getSlot(IND_ID));
+    }
+
+    @Override
+    public int key() {
+        return getSlot(IND_KEY);
+    }
+
+    @Override
+    public GenoMap genoMap() {
+        return store.getGenoMap(getSlot(IND_GENOMAP));
+    }
+
+    @Override
+    public Hyperlink hyperlink() {
+        if (hasFlag(FLAG_HAS_HYPERLINK)) {
+            return new Hyperlink(store.getGenoMap(getSlot(IND_HYPERLINK_GENOMAP)),
+                    store.getString(getSlot(IND_HYPERLINK_ID)));
+        }
+        return null;
+    }
+
+    @Override
+    public Name name() {
+        if (hasFlag(FLAG_HAS_NAME)) {
+            return new Name(store.getString(getSlot(IND_FIRST)), store.getString(getSlot(IND_MIDDLE)),
+                    store.getString(getSlot(IND_LAST)), store.getString(getSlot(IND_LAST2)));
+        }
+        return null;
+    }
+
+    @Override
+    public Gender gender() {
+        return GENDERS[getSlot(IND_GENDER)];
+    }
+
+    @Override
+    public Birth birth() {
+        if (hasFlag(FLAG_HAS_BIRTH)) {
+            return new Birth(GenoDate.fromDate(store.getString(getSlot(IND_BIRTH_DATE))),
+                    store.getString(getSlot(IND_BIRTH_PLACE_ID)), store.getString(getSlot(IND_BIRTH_PLACE)),
+                    store.getString(getSlot(IND_BIRTH_COMMENT)));
+        }
+        return null;
+    }
+
+    @Override
+    public Death death() {
+        if (hasFlag(FLAG_HAS_DEATH)) {
+            return new Death(GenoDate.fromDate(store.getString(getSlot(IND_DEATH_DATE))),
+                    store.getString(getSlot(IND_DEATH_PLACE_ID)), store.getString(getSlot(IND_DEATH_PLACE)),
+                    store.getString(getSlot(IND_DEATH_COMMENT)));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the birth date packed as yyyymmdd without materializing any
+     * date object.
+     *
+     * @return the packed birth date or PackedDateUtil.NO_DATE
+     */
+    public int packedBirthDate() {
+        return getSlot(IND_BIRTH_PACKED);
+    }
+
+    /**
+     * Returns the death date packed as yyyymmdd without materializing any
+     * date object.
+     *
+     * @return the packed death date or PackedDateUtil.NO_DATE
+     */
+    public int packedDeathDate() {
+        return getSlot(IND_DEATH_PACKED);
+    }
+
+    @Override
+    public boolean isDeceased() {
+        return hasFlag(FLAG_DECEASED);
+    }
+
+    @Override
+    public boolean isAnonymized() {
+        return hasFlag(FLAG_ANONYMIZED);
+    }
+
+    @Override
+    public Position position() {
+        return hasFlag(FLAG_HAS_POSITION) ? new Position(x(), y()) : null;
+    }
+
+    public int x() {
+        return getSlot(IND_X);
+    }
+
+    public int y() {
+        return getSlot(IND_Y);
+    }
+
+    @Override
+    public BoundaryRect boundaryRect() {
+        if (hasFlag(FLAG_HAS_BOUNDARY_RECT)) {
+            return BoundaryRect.fromPoints(getSlot(IND_RECT), getSlot(IND_RECT + 1), getSlot(IND_RECT + 2),
+                    getSlot(IND_RECT + 3));
+        }
+        return null;
+    }
+
+    @Override
+    public Set<String> highlightKeySet() {
+        String highlightKeys = store.getString(getSlot(IND_HIGHLIGHT_KEYS));
+        return (highlightKeys != null) ? new HashSet<>(Arrays.asList(highlightKeys.split("\n"))) : new HashSet<>();
+    }
+
+    @Override
+    public boolean isMale() {
+        return getSlot(IND_GENDER) == Gender.MALE.ordinal();
+    }
+
+    @Override
+    public boolean isFemale() {
+        return getSlot(IND_GENDER) == Gender.FEMALE.ordinal();
+    }
+
+    /**
+     * Returns the on-heap copy of the current individual.
+     *
+     * @return the on-heap individual
+     */
+    public Individual toIndividual() {
+        return new Individual(id(), key(), genoMap(), hyperlink(), name(), gender(), birth(), death(), isDeceased(),
+                isAnonymized(), position(), boundaryRect(), highlightKeySet());
+    }
+
+}
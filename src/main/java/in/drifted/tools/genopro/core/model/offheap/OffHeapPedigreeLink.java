@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.model.offheap;
+
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.model.PedigreeLinkType;
+import in.drifted.tools.genopro.core.model.PedigreeLinkView;
+import in.drifted.tools.genopro.core.model.Position;
+
+import static in.drifted.tools.genopro.core.model.offheap.OffHeapStore.*;
+
+public final class OffHeapPedigreeLink implements PedigreeLinkView {
+
+    private static final PedigreeLinkType[] PEDIGREE_LINK_TYPES = PedigreeLinkType.values();
+
+    private final OffHeapStore store;
+    private int index;
+
+    OffHeapPedigreeLink(OffHeapStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    public OffHeapPedigreeLink moveTo(int index) {
+        this.index = index;
+        return this;
+    }
+
+    private int getSlot(int slot) {
+        return getInt(store.linkBuffer, index, LNK_SIZE, slot);
+    }
+
+    @Override
+    public String individualId() {
+        return store.getString(getSlot(LNK_INDIVIDUAL_ID));
+    }
+
+    @Override
+    public PedigreeLinkType pedigreeLinkType() {
+        return PEDIGREE_LINK_TYPES[getSlot(LNK_TYPE)];
+    }
+
+    @Override
+    public Position position() {
+        return ((getSlot(LNK_FLAGS) & FLAG_HAS_POSITION) != 0) ? new Position(getSlot(LNK_X), getSlot(LNK_Y)) : null;
+    }
+
+    @Override
+    public Position twinPosition() {
+        return ((getSlot(LNK_FLAGS) & FLAG_HAS_TWIN_POSITION) != 0)
+                ? new Position(getSlot(LNK_TWIN_X), getSlot(LNK_TWIN_Y)) : null;
+    }
+
+    @Override
+    public boolean isParent() {
+        return getSlot(LNK_TYPE) == PedigreeLinkType.PARENT.ordinal();
+    }
+
+    /**
+     * Returns the on-heap copy of the current pedigree link.
+     *
+     * @return the on-heap pedigree link
+     */
+    public PedigreeLink toPedigreeLink() {
+        return new PedigreeLink(individualId(), pedigreeLinkType(), position(), twinPosition());
+    }
+
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.model.offheap;
+
+import in.drifted.tools.genopro.core.model.BoundaryRect;
+import in.drifted.tools.genopro.core.model.EventDate;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyEvent;
+import in.drifted.tools.genopro.core.model.FamilyView;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.IndividualView;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.model.Position;
+import in.drifted.tools.genopro.core.util.PackedDateUtil;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Stores individuals, families and their pedigree links in direct (off-heap)
+ * buffers as fixed-size int records. Strings are deduplicated and kept as
+ * UTF-8 in a separate off-heap region. Records are read via reusable
+ * flyweights implementing the same read API as the model records; only the
+ * few GenoMaps stay on the heap.
+ */
+public final class OffHeapStore {
+
+    static final int NULL_REF = -1;
+
+    // a ByteBuffer is indexed by int
+    private static final long MAX_BUFFER_SIZE = Integer.MAX_VALUE;
+
+    static final int FLAG_HAS_NAME = 1;
+    static final int FLAG_HAS_BIRTH = 1 << 1;
+    static final int FLAG_HAS_DEATH = 1 << 2;
+    static final int FLAG_DECEASED = 1 << 3;
+    static final int FLAG_ANONYMIZED = 1 << 4;
+    static final int FLAG_HAS_POSITION = 1 << 5;
+    static final int FLAG_HAS_BOUNDARY_RECT = 1 << 6;
+    static final int FLAG_HAS_HYPERLINK = 1 << 7;
+    static final int FLAG_HAS_TOP_BOUNDARY_RECT = 1 << 8;
+    static final int FLAG_HAS_BOTTOM_BOUNDARY_RECT = 1 << 9;
+    static final int FLAG_HAS_TWIN_POSITION = 1 << 10;
+
+    // individual record layout (int slots)
+    static final int IND_KEY = 0;
+    static final int IND_GENOMAP = 1;
+    static final int IND_ID = 2;
+    static final int IND_HYPERLINK_GENOMAP = 3;
+    static final int IND_HYPERLINK_ID = 4;
+    static final int IND_FLAGS = 5;
+    static final int IND_FIRST = 6;
+    static final int IND_MIDDLE = 7;
+    static final int IND_LAST = 8;
+    static final int IND_LAST2 = 9;
+    static final int IND_GENDER = 10;
+    static final int IND_BIRTH_PACKED = 11;
+    static final int IND_BIRTH_DATE = 12;
+    static final int IND_BIRTH_COMMENT = 13;
+    static final int IND_DEATH_PACKED = 14;
+    static final int IND_DEATH_DATE = 15;
+    static final int IND_DEATH_COMMENT = 16;
+    static final int IND_X = 17;
+    static final int IND_Y = 18;
+    static final int IND_RECT = 19;
+    static final int IND_HIGHLIGHT_KEYS = 23;
+    static final int IND_BIRTH_PLACE = 24;
+    static final int IND_DEATH_PLACE = 25;
+    static final int IND_BIRTH_PLACE_ID = 26;
+    static final int IND_DEATH_PLACE_ID = 27;
+    static final int IND_SIZE = 28;
+
+    // family record layout (int slots)
+    static final int FAM_KEY = 0;
+    static final int FAM_ID = 1;
+    static final int FAM_FATHER_ID = 2;
+    static final int FAM_MOTHER_ID = 3;
+    static final int FAM_GENOMAP = 4;
+    static final int FAM_LABEL = 5;
+    static final int FAM_RELATION_TYPE = 6;
+    static final int FAM_LINE_TYPE = 7;
+    static final int FAM_EVENT_START = 8;
+    static final int FAM_EVENT_COUNT = 9;
+    static final int FAM_LINK_START = 10;
+    static final int FAM_LINK_COUNT = 11;
+    static final int FAM_FLAGS = 12;
+    static final int FAM_X = 13;
+    static final int FAM_Y = 14;
+    static final int FAM_TOP_RECT = 15;
+    static final int FAM_BOTTOM_RECT = 19;
+    static final int FAM_SIZE = 23;
+
+    // family event record layout (int slots)
+    static final int EVT_TYPE = 0;
+    static final int EVT_DATE = 1;
+    static final int EVT_PLACE = 2;
+    static final int EVT_COMMENT = 3;
+    static final int EVT_PLACE_ID = 4;
+    static final int EVT_SIZE = 5;
+
+    // pedigree link record layout (int slots)
+    static final int LNK_INDIVIDUAL_ID = 0;
+    static final int LNK_TYPE = 1;
+    static final int LNK_FLAGS = 2;
+    static final int LNK_X = 3;
+    static final int LNK_Y = 4;
+    static final int LNK_TWIN_X = 5;
+    static final int LNK_TWIN_Y = 6;
+    static final int LNK_SIZE = 7;
+
+    private final GenoMap[] genoMaps;
+    private final int individualCount;
+    private final int familyCount;
+
+    final ByteBuffer individualBuffer;
+    final ByteBuffer familyBuffer;
+    final ByteBuffer eventBuffer;
+    final ByteBuffer linkBuffer;
+    final ByteBuffer stringBuffer;
+
+    private OffHeapStore(GenoMap[] genoMaps, int individualCount, int familyCount, ByteBuffer individualBuffer,
+            ByteBuffer familyBuffer, ByteBuffer eventBuffer, ByteBuffer linkBuffer, ByteBuffer stringBuffer) {
+
+        this.genoMaps = genoMaps;
+        this.individualCount = individualCount;
+        this.familyCount = familyCount;
+        this.individualBuffer = individualBuffer;
+        this.familyBuffer = familyBuffer;
+        this.eventBuffer = eventBuffer;
+        this.linkBuffer = linkBuffer;
+        this.stringBuffer = stringBuffer;
+    }
+
+    /**
+     * Returns the off-heap store holding all individuals and families. Once
+     * built, the original records are no longer referenced and can be garbage
+     * collected.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @return the off-heap store
+     * @throws IllegalArgumentException if any buffer would exceed 2 GB
+     */
+    public static OffHeapStore fromGenoMapDataList(List<GenoMapData> genoMapDataList) {
+
+        GenoMap[] genoMaps = new GenoMap[genoMapDataList.size()];
+        Map<GenoMap, Integer> genoMapOrdinalMap = new HashMap<>();
+
+        int individualCount = 0;
+        int familyCount = 0;
+        int eventCount = 0;
+        int linkCount = 0;
+
+        for (int i = 0; i < genoMaps.length; i++) {
+
+            GenoMapData genoMapData = genoMapDataList.get(i);
+
+            genoMaps[i] = genoMapData.genoMap();
+            genoMapOrdinalMap.put(genoMapData.genoMap(), i);
+
+            individualCount += genoMapData.individualSet().size();
+            familyCount += genoMapData.familySet().size();
+
+            for (Family family : genoMapData.familySet()) {
+                eventCount += family.familyEventList().size();
+                linkCount += family.pedigreeLinkList().size();
+            }
+        }
+
+        StringPool stringPool = new StringPool();
+
+        ByteBuffer individualBuffer = allocate("individual", individualCount, IND_SIZE);
+        ByteBuffer familyBuffer = allocate("family", familyCount, FAM_SIZE);
+        ByteBuffer eventBuffer = allocate("event", eventCount, EVT_SIZE);
+        ByteBuffer linkBuffer = allocate("pedigree link", linkCount, LNK_SIZE);
+
+        int eventIndex = 0;
+        int linkIndex = 0;
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+
+            List<Individual> individualList = new ArrayList<>(genoMapData.individualSet());
+            individualList.sort(null);
+
+            for (Individual individual : individualList) {
+                putIndividual(individualBuffer, individual, genoMapOrdinalMap, stringPool);
+            }
+
+            List<Family> familyList = new ArrayList<>(genoMapData.familySet());
+            familyList.sort(null);
+
+            for (Family family : familyList) {
+
+                putFamily(familyBuffer, family, eventIndex, linkIndex, genoMapOrdinalMap, stringPool);
+
+                for (FamilyEvent familyEvent : family.familyEventList()) {
+                    eventBuffer.putInt(familyEvent.type());
+                    eventBuffer.putInt(stringPool.add((familyEvent.date() != null) ? familyEvent.date().date() : null));
+                    eventBuffer.putInt(stringPool.add(familyEvent.place()));
+                    eventBuffer.putInt(stringPool.add(familyEvent.comment()));
+                    eventBuffer.putInt(stringPool.add(familyEvent.placeId()));
+                    eventIndex++;
+                }
+
+                for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+                    putPedigreeLink(linkBuffer, pedigreeLink, stringPool);
+                    linkIndex++;
+                }
+            }
+        }
+
+        return new OffHeapStore(genoMaps, individualCount, familyCount, individualBuffer.flip(), familyBuffer.flip(),
+                eventBuffer.flip(), linkBuffer.flip(), stringPool.toBuffer());
+    }
+
+    private static ByteBuffer allocate(String recordName, int recordCount, int recordSize) {
+
+        long size = Math.multiplyExact(Math.multiplyExact((long) recordCount, recordSize), Integer.BYTES);
+
+        if (size > MAX_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Too many records for the off-heap " + recordName + " buffer: "
+                    + recordCount + " records need " + size + " bytes, the limit is " + MAX_BUFFER_SIZE);
+        }
+
+        return ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+    }
+
+    private static void putIndividual(ByteBuffer buffer, Individual individual, Map<GenoMap, Integer> genoMapOrdinalMap,
+            StringPool stringPool) {
+
+        int flags = 0;
+
+        Name name = individual.name();
+
+        if (name != null) {
+            flags |= FLAG_HAS_NAME;
+        }
+        if (individual.birth() != null) {
+            flags |= FLAG_HAS_BIRTH;
+        }
+        if (individual.death() != null) {
+            flags |= FLAG_HAS_DEATH;
+        }
+        if (individual.isDeceased()) {
+            flags |= FLAG_DECEASED;
+        }
+        if (individual.isAnonymized()) {
+            flags |= FLAG_ANONYMIZED;
+        }
+        if (individual.position() != null) {
+            flags |= FLAG_HAS_POSITION;
+        }
+        if (individual.boundaryRect() != null) {
+            flags |= FLAG_HAS_BOUNDARY_RECT;
+        }
+        if (individual.hyperlink() != null) {
+            flags |= FLAG_HAS_HYPERLINK;
+        }
+
+        buffer.putInt(individual.key());
+        buffer.putInt(getGenoMapOrdinal(individual.genoMap(), genoMapOrdinalMap));
+        buffer.putInt(stringPool.add(individual.id()));
+        buffer.putInt((individual.hyperlink() != null)
+                ? getGenoMapOrdinal(individual.hyperlink().genoMap(), genoMapOrdinalMap) : NULL_REF);
+        buffer.putInt((individual.hyperlink() != null) ? stringPool.add(individual.hyperlink().id()) : NULL_REF);
+        buffer.putInt(flags);
+        buffer.putInt((name != null) ? stringPool.add(name.first()) : NULL_REF);
+        buffer.putInt((name != null) ? stringPool.add(name.middle()) : NULL_REF);
+        buffer.putInt((name != null) ? stringPool.add(name.last()) : NULL_REF);
+        buffer.putInt((name != null) ? stringPool.add(name.last2()) : NULL_REF);
+        buffer.putInt(individual.gender().ordinal());
+        putEventDate(buffer, individual.birth(), stringPool);
+        putEventDate(buffer, individual.death(), stringPool);
+        putPosition(buffer, individual.position());
+        putBoundaryRect(buffer, individual.boundaryRect());
+        buffer.putInt((individual.highlightKeySet() != null && !individual.highlightKeySet().isEmpty())
+                ? stringPool.add(String.join("\n", individual.highlightKeySet())) : NULL_REF);
+        buffer.putInt((individual.birth() != null) ? stringPool.add(individual.birth().place()) : NULL_REF);
+        buffer.putInt((individual.death() != null) ? stringPool.add(individual.death().place()) : NULL_REF);
+        buffer.putInt((individual.birth() != null) ? stringPool.add(individual.birth().placeId()) : NULL_REF);
+        buffer.putInt((individual.death() != null) ? stringPool.add(individual.death().placeId()) : NULL_REF);
+    }
+
+    private static void putFamily(ByteBuffer buffer, Family family, int eventStart, int linkStart,
+            Map<GenoMap, Integer> genoMapOrdinalMap, StringPool stringPool) {
+
+        int flags = 0;
+
+        if (family.position() != null) {
+            flags |= FLAG_HAS_POSITION;
+        }
+        if (family.topBoundaryRect() != null) {
+            flags |= FLAG_HAS_TOP_BOUNDARY_RECT;
+        }
+        if (family.bottomBoundaryRect() != null) {
+            flags |= FLAG_HAS_BOTTOM_BOUNDARY_RECT;
+        }
+
+        buffer.putInt(family.key());
+        buffer.putInt(stringPool.add(family.id()));
+        buffer.putInt(stringPool.add(family.fatherId()));
+        buffer.putInt(stringPool.add(family.motherId()));
+        buffer.putInt(getGenoMapOrdinal(family.genoMap(), genoMapOrdinalMap));
+        buffer.putInt(stringPool.add(family.label()));
+        buffer.putInt(family.familyRelationType().ordinal());
+        buffer.putInt(family.familyLineType().ordinal());
+        buffer.putInt(eventStart);
+        buffer.putInt(family.familyEventList().size());
+        buffer.putInt(linkStart);
+        buffer.putInt(family.pedigreeLinkList().size());
+        buffer.putInt(flags);
+        putPosition(buffer, family.position());
+        putBoundaryRect(buffer, family.topBoundaryRect());
+        putBoundaryRect(buffer, family.bottomBoundaryRect());
+    }
+
+    private static void putPedigreeLink(ByteBuffer buffer, PedigreeLink pedigreeLink, StringPool stringPool) {
+
+        int flags = 0;
+
+        if (pedigreeLink.position() != null) {
+            flags |= FLAG_HAS_POSITION;
+        }
+        if (pedigreeLink.twinPosition() != null) {
+            flags |= FLAG_HAS_TWIN_POSITION;
+        }
+
+        buffer.putInt(stringPool.add(pedigreeLink.individualId()));
+        buffer.putInt(pedigreeLink.pedigreeLinkType().ordinal());
+        buffer.putInt(flags);
+        putPosition(buffer, pedigreeLink.position());
+        putPosition(buffer, pedigreeLink.twinPosition());
+    }
+
+    private static void putEventDate(ByteBuffer buffer, EventDate eventDate, StringPool stringPool) {
+        buffer.putInt(PackedDateUtil.pack(eventDate));
+        buffer.putInt((eventDate != null && eventDate.date() != null) ? stringPool.add(eventDate.date().date()) : NULL_REF);
+        buffer.putInt((eventDate != null) ? stringPool.add(eventDate.comment()) : NULL_REF);
+    }
+
+    private static void putPosition(ByteBuffer buffer, Position position) {
+        buffer.putInt((position != null) ? position.x() : 0);
+        buffer.putInt((position != null) ? position.y() : 0);
+    }
+
+    private static void putBoundaryRect(ByteBuffer buffer, BoundaryRect boundaryRect) {
+        if (boundaryRect != null) {
+            buffer.putInt(boundaryRect.topLeft().x());
+            buffer.putInt(boundaryRect.topLeft().y());
+            buffer.putInt(boundaryRect.bottomRight().x());
+            buffer.putInt(boundaryRect.bottomRight().y());
+        } else {
+            buffer.putInt(0).putInt(0).putInt(0).putInt(0);
+        }
+    }
+
+    private static int getGenoMapOrdinal(GenoMap genoMap, Map<GenoMap, Integer> genoMapOrdinalMap) {
+        return (genoMap != null) ? genoMapOrdinalMap.getOrDefault(genoMap, NULL_REF) : NULL_REF;
+    }
+
+    public int getIndividualCount() {
+        return individualCount;
+    }
+
+    public int getFamilyCount() {
+        return familyCount;
+    }
+
+    /**
+     * Returns the total size of all off-heap buffers in bytes.
+     *
+     * @return the off-heap size in bytes
+     */
+    public long getOffHeapSize() {
+        return (long) individualBuffer.capacity() + familyBuffer.capacity() + eventBuffer.capacity()
+                + linkBuffer.capacity() + stringBuffer.capacity();
+    }
+
+    /**
+     * Returns the new flyweight positioned at the given individual. The
+     * flyweight can be moved to other individuals via its moveTo method.
+     *
+     * @param index individual index from 0 to individual count - 1
+     * @return the flyweight of the given individual
+     */
+    public OffHeapIndividual getIndividual(int index) {
+        OffHeapIndividual individual = new OffHeapIndividual(this);
+        individual.moveTo(index);
+        return individual;
+    }
+
+    /**
+     * Returns the new flyweight positioned at the given family. The flyweight
+     * can be moved to other families via its moveTo method.
+     *
+     * @param index family index from 0 to family count - 1
+     * @return the flyweight of the given family
+     */
+    public OffHeapFamily getFamily(int index) {
+        OffHeapFamily family = new OffHeapFamily(this);
+        family.moveTo(index);
+        return family;
+    }
+
+    /**
+     * Performs the action for each individual. A single flyweight is reused
+     * for all individuals, so it must not be retained by the action.
+     *
+     * @param action action to be performed
+     */
+    public void forEachIndividual(Consumer<? super IndividualView> action) {
+
+        OffHeapIndividual individual = new OffHeapIndividual(this);
+
+        for (int i = 0; i < individualCount; i++) {
+            individual.moveTo(i);
+            action.accept(individual);
+        }
+    }
+
+    /**
+     * Performs the action for each family. A single flyweight is reused for
+     * all families, so it must not be retained by the action.
+     *
+     * @param action action to be performed
+     */
+    public void forEachFamily(Consumer<? super FamilyView> action) {
+
+        OffHeapFamily family = new OffHeapFamily(this);
+
+        for (int i = 0; i < familyCount; i++) {
+            family.moveTo(i);
+            action.accept(family);
+        }
+    }
+
+    GenoMap getGenoMap(int genoMapOrdinal) {
+        return (genoMapOrdinal != NULL_REF) ? genoMaps[genoMapOrdinal] : null;
+    }
+
+    String getString(int ref) {
+
+        if (ref == NULL_REF) {
+            return null;
+        }
+
+        int length = stringBuffer.getInt(ref);
+        byte[] bytes = new byte[length];
+        stringBuffer.get(ref + Integer.BYTES, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int getInt(ByteBuffer buffer, int recordIndex, int recordSize, int slot) {
+        return buffer.getInt((recordIndex * recordSize + slot) * Integer.BYTES);
+    }
+
+    private static class StringPool {
+
+        private final Map<String, Integer> refMap = new HashMap<>();
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.nativeOrder());
+
+        public int add(String value) {
+
+            if (value == null) {
+                return NULL_REF;
+            }
+
+            Integer ref = refMap.get(value);
+
+            if (ref == null) {
+
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+                ensureCapacity(Integer.BYTES + bytes.length);
+
+                ref = buffer.position();
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+
+                refMap.put(value, ref);
+            }
+
+            return ref;
+        }
+
+        private void ensureCapacity(int length) {
+
+            if (buffer.remaining() < length) {
+
+                long requiredCapacity = (long) buffer.position() + length;
+
+                if (requiredCapacity > MAX_BUFFER_SIZE) {
+                    throw new IllegalArgumentException("Too many strings for the off-heap string buffer: "
+                            + requiredCapacity + " bytes needed, the limit is " + MAX_BUFFER_SIZE);
+                }
+
+                int capacity = (int) Math.min(Math.max(buffer.capacity() * 2L, requiredCapacity), MAX_BUFFER_SIZE);
+
+                ByteBuffer newBuffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+                newBuffer.put(buffer.flip());
+                buffer = newBuffer;
+            }
+        }
+
+        public ByteBuffer toBuffer() {
+
+            ByteBuffer trimmedBuffer = ByteBuffer.allocateDirect(buffer.position()).order(ByteOrder.nativeOrder());
+            trimmedBuffer.put(buffer.flip());
+
+            return trimmedBuffer.flip();
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Thread-safe source of XML parsers. Each thread reuses its own
+ * DocumentBuilder, which is reset after every parse.
+ */
+public class DocumentBuilderPool {
+
+    private static final String DEFER_NODE_EXPANSION_FEATURE
+            = "http://apache.org/xml/features/dom/defer-node-expansion";
+
+    private static final DocumentBuilderPool DEFAULT_POOL = new DocumentBuilderPool(newDocumentBuilderFactory(false));
+
+    private final DocumentBuilderFactory documentBuilderFactory;
+    private final ThreadLocal<DocumentBuilder> documentBuilderThreadLocal = new ThreadLocal<>();
+
+    public DocumentBuilderPool(DocumentBuilderFactory documentBuilderFactory) {
+        this.documentBuilderFactory = documentBuilderFactory;
+    }
+
+    public static DocumentBuilderPool getDefault() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * Returns the factory configured for parsing GenoPro files. DTDs and
+     * external entities are never loaded, so no network lookups occur, and
+     * comments are dropped.
+     *
+     * @param deferredNodeExpansion use true to expand DOM nodes lazily where
+     * the parser supports it; it speeds up parsing when only a part of the
+     * document is accessed, but slows down full traversal
+     * @return the document builder factory
+     */
+    public static DocumentBuilderFactory newDocumentBuilderFactory(boolean deferredNodeExpansion) {
+
+        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+
+        documentBuilderFactory.setNamespaceAware(false);
+        documentBuilderFactory.setValidating(false);
+        documentBuilderFactory.setXIncludeAware(false);
+        documentBuilderFactory.setExpandEntityReferences(false);
+        documentBuilderFactory.setIgnoringComments(true);
+
+        setFeature(documentBuilderFactory, XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        setFeature(documentBuilderFactory, "http://xml.org/sax/features/external-general-entities", false);
+        setFeature(documentBuilderFactory, "http://xml.org/sax/features/external-parameter-entities", false);
+        setFeature(documentBuilderFactory, "http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        setFeature(documentBuilderFactory, DEFER_NODE_EXPANSION_FEATURE, deferredNodeExpansion);
+
+        documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        documentBuilderFactory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+
+        return documentBuilderFactory;
+    }
+
+    // features are implementation specific, unsupported ones are skipped
+    private static void setFeature(DocumentBuilderFactory documentBuilderFactory, String name, boolean value) {
+        try {
+            documentBuilderFactory.setFeature(name, value);
+        } catch (ParserConfigurationException e) {
+            // not supported by this parser
+        }
+    }
+
+    /**
+     * Returns the parsed XML document.
+     *
+     * @param inputStream XML input
+     * @return the parsed XML document
+     * @throws IOException if an I/O error occurs or the XML is malformed
+     */
+    public Document parse(InputStream inputStream) throws IOException {
+
+        DocumentBuilder documentBuilder = getDocumentBuilder();
+
+        try {
+            return documentBuilder.parse(inputStream);
+
+        } catch (SAXException e) {
+            throw new IOException(e);
+
+        } finally {
+            documentBuilder.reset();
+        }
+    }
+
+    /**
+     * Returns a new empty XML document.
+     *
+     * @return the empty XML document
+     * @throws IOException if the parser cannot be created
+     */
+    public Document newDocument() throws IOException {
+        return getDocumentBuilder().newDocument();
+    }
+
+    private DocumentBuilder getDocumentBuilder() throws IOException {
+
+        DocumentBuilder documentBuilder = documentBuilderThreadLocal.get();
+
+        if (documentBuilder == null) {
+
+            // factories are not thread-safe
+            synchronized (documentBuilderFactory) {
+                try {
+                    documentBuilder = documentBuilderFactory.newDocumentBuilder();
+                } catch (ParserConfigurationException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            documentBuilderThreadLocal.set(documentBuilder);
+        }
+
+        return documentBuilder;
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+import in.drifted.tools.genopro.core.model.DocumentEntity;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher of GenoPro entities as they are parsed. Every subscriber gets its
+ * own {@link DocumentEntityReader}, which is read on the given executor only
+ * while the subscriber has outstanding demand, so memory stays bounded
+ * regardless of the document size.
+ */
+public class DocumentEntityPublisher implements Flow.Publisher<DocumentEntity> {
+
+    private final Path path;
+    private final DocumentParserOptions documentParserOptions;
+    private final Set<DocumentEntityType> entityTypeSet;
+    private final Executor executor;
+
+    public DocumentEntityPublisher(Path path, DocumentParserOptions documentParserOptions,
+            Set<DocumentEntityType> entityTypeSet, Executor executor) {
+
+        this.path = path;
+        this.documentParserOptions = documentParserOptions;
+        this.entityTypeSet = entityTypeSet;
+        this.executor = executor;
+    }
+
+    public DocumentEntityPublisher(Path path, DocumentParserOptions documentParserOptions) {
+        this(path, documentParserOptions, EnumSet.allOf(DocumentEntityType.class), ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DocumentEntity> subscriber) {
+
+        Objects.requireNonNull(subscriber, "Subscriber is null");
+
+        DocumentEntitySubscription subscription = new DocumentEntitySubscription(subscriber);
+
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class DocumentEntitySubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super DocumentEntity> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingRunCount = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private DocumentEntityReader documentEntityReader;
+        private boolean done;
+
+        DocumentEntitySubscription(Flow.Subscriber<? super DocumentEntity> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> (current + added < 0) ? Long.MAX_VALUE : current + added);
+            }
+
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pendingRunCount.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        // runs serially, further requests arriving meanwhile are handled by the same run
+        @Override
+        public void run() {
+
+            int runCount = pendingRunCount.get();
+
+            do {
+                emit();
+                runCount = pendingRunCount.addAndGet(-runCount);
+            } while (runCount != 0);
+        }
+
+        private void emit() {
+
+            if (done) {
+                return;
+            }
+
+            if (cancelled) {
+                finishQuietly();
+                return;
+            }
+
+            if (invalidRequest != null) {
+                finishQuietly();
+                signal(() -> subscriber.onError(invalidRequest));
+                return;
+            }
+
+            while (demand.get() > 0 && !cancelled) {
+
+                DocumentEntity documentEntity;
+
+                try {
+                    if (documentEntityReader == null) {
+                        documentEntityReader = new DocumentEntityReader(path, documentParserOptions, entityTypeSet);
+                    }
+
+                    documentEntity = documentEntityReader.read();
+
+                    if (documentEntity == null) {
+                        finish();
+                    }
+
+                } catch (IOException | RuntimeException e) {
+                    finishQuietly();
+                    signal(() -> subscriber.onError(e));
+                    return;
+                }
+
+                if (documentEntity == null) {
+                    signal(subscriber::onComplete);
+                    return;
+                }
+
+                if (!signal(() -> subscriber.onNext(documentEntity))) {
+                    return;
+                }
+
+                demand.decrementAndGet();
+            }
+        }
+
+        // a throwing subscriber breaks rule 2.13, so the subscription is cancelled without any further signal
+        private boolean signal(Runnable signal) {
+
+            try {
+                signal.run();
+                return true;
+
+            } catch (RuntimeException e) {
+                cancelled = true;
+                finishQuietly();
+                return false;
+            }
+        }
+
+        private void finish() throws IOException {
+
+            done = true;
+
+            if (documentEntityReader != null) {
+                documentEntityReader.close();
+                documentEntityReader = null;
+            }
+        }
+
+        private void finishQuietly() {
+            try {
+                finish();
+            } catch (IOException e) {
+                // the original exception is reported
+            }
+        }
+    }
+
+}
@@ -0,0 +1,627 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+import in.drifted.tools.genopro.core.model.DocumentEntity;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyEvent;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Label;
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.model.Place;
+import in.drifted.tools.genopro.core.model.Position;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Pull-based reader returning GenoPro entities one by one as they are parsed,
+ * without building the DOM of the whole document. Each entity element is
+ * turned into a small DOM fragment, so the same rules as in
+ * {@link DocumentParser} apply.
+ * <p>
+ * Entities referencing others are resolved by reading the file in several
+ * passes (GenoMaps and places first, then individuals and labels, finally
+ * families), so only lookup data is retained, never the parsed entities.
+ * GenoMaps and places are returned first, families last.
+ */
+public class DocumentEntityReader implements AutoCloseable {
+
+    private static final int INDEX_PASS = 0;
+    private static final int INDIVIDUAL_PASS = 1;
+    private static final int PEDIGREE_LINK_PASS = 2;
+    private static final int FAMILY_PASS = 3;
+    private static final int PASS_COUNT = 4;
+
+    private final Path path;
+    private final DocumentParserOptions documentParserOptions;
+    private final Set<DocumentEntityType> entityTypeSet;
+    private final boolean familiesRequired;
+    private final boolean individualsRequired;
+    private final boolean anonymizeDatesOnly;
+    private final ElementFilter elementFilter;
+    private final XMLInputFactory xmlInputFactory = newXMLInputFactory();
+    private final Deque<DocumentEntity> entityQueue = new ArrayDeque<>();
+
+    private final Map<String, GenoMap> genoMapMap = new LinkedHashMap<>();
+    private final Set<String> genoMapIdSet = new HashSet<>();
+    private final Map<String, String> placeMap = new HashMap<>();
+    private final Set<String> hyperlinkedIndividualIdSet = new HashSet<>();
+    private final Set<Individual> hyperlinkedIndividualSet = new HashSet<>();
+    private final Map<String, Individual> individualMap = new HashMap<>();
+    private final Map<String, Position> individualPositionMap = new HashMap<>();
+    private final Map<String, Position> twinPositionMap = new HashMap<>();
+    private final Map<String, FamilyEvent> marriageMap = new HashMap<>();
+    private final Map<String, List<PedigreeLink>> familyPedigreeLinkMap = new HashMap<>();
+
+    private Document fragmentDocument;
+    private InputStream inputStream;
+    private XMLStreamReader xmlStreamReader;
+    private Set<String> sectionNameSet;
+    private String sectionName;
+    private int pass = -1;
+    private int depth;
+    private boolean closed;
+
+    /**
+     * Creates the reader of the given entity types.
+     *
+     * @param path                  path to GenoPro file
+     * @param documentParserOptions document parser options
+     * @param entityTypeSet         entity types to be returned
+     */
+    public DocumentEntityReader(Path path, DocumentParserOptions documentParserOptions,
+            Set<DocumentEntityType> entityTypeSet) {
+
+        this.path = path;
+        this.documentParserOptions = documentParserOptions;
+        this.entityTypeSet = entityTypeSet.isEmpty()
+                ? EnumSet.noneOf(DocumentEntityType.class) : EnumSet.copyOf(entityTypeSet);
+        this.familiesRequired = entityTypeSet.contains(DocumentEntityType.FAMILY);
+        this.individualsRequired = familiesRequired || entityTypeSet.contains(DocumentEntityType.INDIVIDUAL);
+        this.anonymizeDatesOnly = LocalDate.now().equals(documentParserOptions.getAnonymizedSinceDate());
+        this.elementFilter = ElementFilter.fromOptions(documentParserOptions);
+    }
+
+    /**
+     * Creates the reader of all entity types.
+     *
+     * @param path                  path to GenoPro file
+     * @param documentParserOptions document parser options
+     */
+    public DocumentEntityReader(Path path, DocumentParserOptions documentParserOptions) {
+        this(path, documentParserOptions, EnumSet.allOf(DocumentEntityType.class));
+    }
+
+    /**
+     * Returns the next entity.
+     *
+     * @return the next entity or null if there are no more entities
+     * @throws IOException if an I/O error occurs or the XML is malformed
+     */
+    public DocumentEntity read() throws IOException {
+
+        while (entityQueue.isEmpty()) {
+
+            if (closed) {
+                return null;
+            }
+
+            if (xmlStreamReader == null) {
+                if (!openNextPass()) {
+                    close();
+                    return null;
+                }
+            }
+
+            readEntities();
+        }
+
+        return entityQueue.poll();
+    }
+
+    /**
+     * Returns the stream of the remaining entities. I/O errors are rethrown
+     * as UncheckedIOException. Closing the stream closes this reader.
+     *
+     * @return the stream of the remaining entities
+     */
+    public Stream<DocumentEntity> stream() {
+
+        Iterator<DocumentEntity> iterator = new Iterator<>() {
+
+            private DocumentEntity nextEntity;
+
+            @Override
+            public boolean hasNext() {
+
+                if (nextEntity == null) {
+                    try {
+                        nextEntity = read();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                return nextEntity != null;
+            }
+
+            @Override
+            public DocumentEntity next() {
+
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                DocumentEntity entity = nextEntity;
+                nextEntity = null;
+
+                return entity;
+            }
+        };
+
+        Spliterator<DocumentEntity> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        closed = true;
+
+        closeStreams();
+    }
+
+    static XMLInputFactory newXMLInputFactory() {
+
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        return xmlInputFactory;
+    }
+
+    private boolean openNextPass() throws IOException {
+
+        while (++pass < PASS_COUNT) {
+
+            sectionNameSet = getSectionNameSet(pass);
+
+            if (!sectionNameSet.isEmpty()) {
+
+                if (fragmentDocument == null) {
+                    fragmentDocument = DocumentBuilderPool.getDefault().newDocument();
+                }
+
+                ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(Files.newInputStream(path)));
+                inputStream = zipInputStream;
+
+                if (zipInputStream.getNextEntry() == null) {
+                    closeStreams();
+                    return false;
+                }
+
+                try {
+                    xmlStreamReader = xmlInputFactory.createXMLStreamReader(zipInputStream);
+                } catch (XMLStreamException e) {
+                    closeStreams();
+                    throw new IOException(e);
+                }
+
+                depth = 0;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private Set<String> getSectionNameSet(int pass) {
+
+        Set<String> sectionNameSet = new HashSet<>();
+
+        switch (pass) {
+            case INDEX_PASS -> {
+                if (individualsRequired || entityTypeSet.contains(DocumentEntityType.GENOMAP)
+                        || entityTypeSet.contains(DocumentEntityType.LABEL)) {
+                    sectionNameSet.add("GenoMaps");
+                }
+                if ((individualsRequired && !elementFilter.isSectionSkipped("Places"))
+                        || entityTypeSet.contains(DocumentEntityType.PLACE)) {
+                    sectionNameSet.add("Places");
+                }
+                if (individualsRequired && documentParserOptions.hasHyperlinkedIndividualInstancesDeduplicated()) {
+                    sectionNameSet.add("Individuals");
+                }
+            }
+            case INDIVIDUAL_PASS -> {
+                if (individualsRequired) {
+                    sectionNameSet.add("Individuals");
+                }
+                if (entityTypeSet.contains(DocumentEntityType.LABEL) && !documentParserOptions.hasTextLabelsExcluded()) {
+                    sectionNameSet.add("Labels");
+                }
+                if (familiesRequired) {
+                    sectionNameSet.add("Twins");
+                    sectionNameSet.add("Marriages");
+                    sectionNameSet.removeIf(elementFilter::isSectionSkipped);
+                }
+            }
+            case PEDIGREE_LINK_PASS -> {
+                if (familiesRequired) {
+                    sectionNameSet.add("PedigreeLinks");
+                }
+            }
+            case FAMILY_PASS -> {
+                if (familiesRequired) {
+                    sectionNameSet.add("Families");
+                }
+            }
+        }
+
+        return sectionNameSet;
+    }
+
+    // reads until some entity is available or the end of the pass is reached
+    private void readEntities() throws IOException {
+
+        try {
+            while (entityQueue.isEmpty() && xmlStreamReader.hasNext()) {
+
+                int event = xmlStreamReader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+
+                    depth++;
+
+                    if (depth == 2) {
+                        sectionName = xmlStreamReader.getLocalName();
+                        if (!sectionNameSet.contains(sectionName)) {
+                            skipElement();
+                            depth--;
+                        }
+
+                    } else if (depth == 3) {
+                        readEntity(xmlStreamReader.getLocalName());
+                        depth--;
+                    }
+
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+
+            if (!xmlStreamReader.hasNext()) {
+                closeStreams();
+                finishPass();
+            }
+
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void readEntity(String elementName) throws XMLStreamException {
+
+        switch (sectionName) {
+            case "GenoMaps" -> {
+                if (elementName.equals("GenoMap")) {
+                    addGenoMap(DocumentParser.getGenoMap(readElement(), genoMapIdSet));
+                    return;
+                }
+            }
+            case "Places" -> {
+                if (elementName.equals("Place")) {
+                    addPlace(readElement());
+                    return;
+                }
+            }
+            case "Individuals" -> {
+                if (elementName.equals("Individual")) {
+                    if (pass == INDEX_PASS) {
+                        addHyperlinkedIndividualId();
+                        return;
+                    }
+                    addIndividual(DocumentParser.getIndividual(genoMapMap, placeMap, readElement(),
+                            documentParserOptions));
+                    return;
+                }
+            }
+            case "Labels" -> {
+                if (elementName.equals("Label")) {
+                    addLabel(DocumentParser.getLabel(readElement(), genoMapMap, documentParserOptions));
+                    return;
+                }
+            }
+            case "Twins" -> {
+                if (elementName.equals("Twin")) {
+                    Element twinElement = readElement();
+                    twinPositionMap.put(twinElement.getAttribute("ID"), DocumentParser.getTwinPosition(twinElement));
+                    return;
+                }
+            }
+            case "Marriages" -> {
+                if (elementName.equals("Marriage")) {
+                    Element marriageElement = readElement();
+                    marriageMap.put(marriageElement.getAttribute("ID"),
+                            DocumentParser.getMarriage(marriageElement, placeMap));
+                    return;
+                }
+            }
+            case "PedigreeLinks" -> {
+                if (elementName.equals("PedigreeLink")) {
+                    addPedigreeLink(readElement());
+                    return;
+                }
+            }
+            case "Families" -> {
+                if (elementName.equals("Family")) {
+                    addFamily(readElement());
+                    return;
+                }
+            }
+        }
+
+        skipElement();
+    }
+
+    private void finishPass() {
+
+        switch (pass) {
+            case INDIVIDUAL_PASS -> {
+                if (!hyperlinkedIndividualSet.isEmpty()) {
+                    List<Individual> individualList = new ArrayList<>(DocumentParser.getDeduplicatedIndividualSet(
+                            hyperlinkedIndividualSet, documentParserOptions));
+                    individualList.sort(null);
+                    for (Individual individual : individualList) {
+                        addProcessedIndividual(individual);
+                    }
+                }
+                hyperlinkedIndividualIdSet.clear();
+                hyperlinkedIndividualSet.clear();
+            }
+            case PEDIGREE_LINK_PASS -> {
+                individualPositionMap.clear();
+                twinPositionMap.clear();
+            }
+        }
+    }
+
+    private void addGenoMap(GenoMap genoMap) {
+
+        if (genoMap != null) {
+
+            genoMapMap.put(genoMap.name(), genoMap);
+
+            if (entityTypeSet.contains(DocumentEntityType.GENOMAP) && isIncluded(genoMap)) {
+                entityQueue.add(genoMap);
+            }
+        }
+    }
+
+    private void addPlace(Element placeElement) {
+
+        Place place = DocumentParser.getPlace(placeElement);
+
+        placeMap.put(place.id(), place.name());
+
+        if (entityTypeSet.contains(DocumentEntityType.PLACE)) {
+            entityQueue.add(place);
+        }
+    }
+
+    private void addHyperlinkedIndividualId() throws XMLStreamException {
+
+        String hyperlink = xmlStreamReader.getAttributeValue(null, "IndividualInternalHyperlink");
+
+        if (hyperlink != null && !hyperlink.isEmpty()) {
+            hyperlinkedIndividualIdSet.add(xmlStreamReader.getAttributeValue(null, "ID"));
+            hyperlinkedIndividualIdSet.add(hyperlink);
+        }
+
+        skipElement();
+    }
+
+    private void addIndividual(Individual individual) {
+
+        if (individual.name() == null && documentParserOptions.hasUnknownIndividualsExcluded()) {
+            return;
+        }
+
+        // deduplication needs both instances, so they are returned at the end of the pass
+        if (hyperlinkedIndividualIdSet.contains(individual.id())) {
+            hyperlinkedIndividualSet.add(individual);
+
+        } else {
+            addProcessedIndividual(individual);
+        }
+    }
+
+    private void addProcessedIndividual(Individual individual) {
+
+        LocalDate anonymizedSinceDate = documentParserOptions.getAnonymizedSinceDate();
+
+        if (anonymizedSinceDate != null) {
+            individual = DocumentParser.getAnonymizedIndividual(individual, anonymizedSinceDate, anonymizeDatesOnly,
+                    documentParserOptions.hasField(DocumentField.EVENTS));
+        }
+
+        if (familiesRequired) {
+            // only details needed for families are kept
+            individualMap.put(individual.id(), new Individual(individual.id(), individual.key(), null, null, null,
+                    individual.gender(), null, null, false, individual.isAnonymized(), null, null, null));
+            individualPositionMap.put(individual.id(), individual.position());
+        }
+
+        if (entityTypeSet.contains(DocumentEntityType.INDIVIDUAL) && isIncluded(individual.genoMap())) {
+            entityQueue.add(individual);
+        }
+    }
+
+    private void addLabel(Label label) {
+        if (isIncluded(label.genoMap())) {
+            entityQueue.add(label);
+        }
+    }
+
+    private void addPedigreeLink(Element pedigreeLinkElement) {
+
+        String familyId = pedigreeLinkElement.getAttribute("Family");
+
+        if (!familyPedigreeLinkMap.containsKey(familyId)) {
+            familyPedigreeLinkMap.put(familyId, new ArrayList<>());
+        }
+
+        familyPedigreeLinkMap.get(familyId).add(
+                DocumentParser.getPedigreeLink(pedigreeLinkElement, individualPositionMap, twinPositionMap));
+    }
+
+    private void addFamily(Element familyElement) {
+
+        Family family = DocumentParser.getFamily(familyElement, genoMapMap, individualMap, familyPedigreeLinkMap,
+                marriageMap, documentParserOptions);
+
+        familyPedigreeLinkMap.remove(familyElement.getAttribute("ID"));
+
+        if (family != null && isIncluded(family.genoMap())) {
+            entityQueue.add(family);
+        }
+    }
+
+    private boolean isIncluded(GenoMap genoMap) {
+        return genoMap == null || !(genoMap.title() == null && documentParserOptions.hasUntitledGenoMapsExcluded());
+    }
+
+    // builds the DOM fragment of the current element, the reader is left at its end tag
+    private Element readElement() throws XMLStreamException {
+
+        Set<String> skippedElementNameSet = elementFilter.getSkippedElementNameSet(xmlStreamReader.getLocalName());
+
+        Element element = createElement();
+        Element currentElement = element;
+
+        while (true) {
+
+            switch (xmlStreamReader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    if (skippedElementNameSet.contains(xmlStreamReader.getLocalName())) {
+                        skipElement();
+                    } else {
+                        Element childElement = createElement();
+                        currentElement.appendChild(childElement);
+                        currentElement = childElement;
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    if (currentElement == element) {
+                        return element;
+                    }
+                    currentElement = (Element) currentElement.getParentNode();
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                    currentElement.appendChild(fragmentDocument.createTextNode(xmlStreamReader.getText()));
+                default -> {
+                }
+            }
+        }
+    }
+
+    private Element createElement() {
+
+        Element element = fragmentDocument.createElement(xmlStreamReader.getLocalName());
+
+        for (int i = 0, count = xmlStreamReader.getAttributeCount(); i < count; i++) {
+            element.setAttribute(xmlStreamReader.getAttributeLocalName(i), xmlStreamReader.getAttributeValue(i));
+        }
+
+        return element;
+    }
+
+    private void skipElement() throws XMLStreamException {
+
+        int level = 1;
+
+        while (level > 0) {
+            int event = xmlStreamReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            }
+        }
+    }
+
+    private void closeStreams() throws IOException {
+
+        try {
+            if (xmlStreamReader != null) {
+                xmlStreamReader.close();
+            }
+
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+
+        } finally {
+            xmlStreamReader = null;
+
+            if (inputStream != null) {
+                inputStream.close();
+                inputStream = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+/**
+ * Optional groups of entity fields. The parser skips the XML of excluded
+ * groups and leaves the corresponding model fields null (empty for
+ * collections).
+ */
+public enum DocumentField {
+    /**
+     * Positions and boundary rects of individuals, families, pedigree links
+     * and labels.
+     */
+    GEOMETRY,
+    /**
+     * Label styles.
+     */
+    STYLING,
+    /**
+     * Highlight keys of individuals.
+     */
+    HIGHLIGHT_KEYS,
+    /**
+     * Births, deaths and marriages. If excluded while anonymization is on,
+     * births are still read to tell living individuals, but not returned.
+     */
+    EVENTS,
+    /**
+     * Place names of events.
+     */
+    PLACES
+}
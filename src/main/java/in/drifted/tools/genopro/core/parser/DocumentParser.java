@@ -37,15 +37,18 @@ import in.drifted.tools.genopro.core.model.LabelStyle;
 import in.drifted.tools.genopro.core.model.Name;
 import in.drifted.tools.genopro.core.model.PedigreeLink;
 import in.drifted.tools.genopro.core.model.PedigreeLinkType;
+import in.drifted.tools.genopro.core.model.Place;
 import in.drifted.tools.genopro.core.model.Position;
 import in.drifted.tools.genopro.core.model.Rect;
 import in.drifted.tools.genopro.core.model.Size;
 import in.drifted.tools.genopro.core.util.GenoMapIdUtil;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -53,18 +56,26 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.stream.Stream;
 import java.util.zip.ZipInputStream;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 public class DocumentParser {
 
+    // child elements read from particular nodes, values are returned in the same order
+    private static final String[] DOCUMENT_FIELDS = {"Title", "Description"};
+    private static final String[] DISPLAY_FIELDS = {"Tag"};
+    private static final String[] GENOMAP_FIELDS = {"Title"};
+    private static final String[] INDIVIDUAL_FIELDS = {"Gender", "IsDead"};
+    private static final String[] NAME_FIELDS = {"First", "Middle", "Last", "Last2"};
+    private static final String[] EVENT_FIELDS = {"Date", "Place", "Comment"};
+    private static final String[] FAMILY_FIELDS = {"DisplayText", "FamilyLine", "Relation"};
+    private static final String[] FAMILY_LINE_FIELDS = {"Left", "Right"};
+    private static final String[] PLACE_FIELDS = {"Name", "Parent", "Latitude", "Longitude"};
+
     /**
      * Returns the GenoPro XML document.
      *
@@ -73,28 +84,98 @@ public class DocumentParser {
      * @throws IOException if an I/O error occurs while reading the file
      */
     public static Document getDocument(Path path) throws IOException {
+        return getDocument(path, DocumentBuilderPool.getDefault());
+    }
 
-        Document document = null;
+    /**
+     * Returns the GenoPro XML document parsed using the given parser pool.
+     *
+     * @param path                path to GenoPro file
+     * @param documentBuilderPool XML parser pool
+     * @return the GenoPro XML document
+     * @throws IOException if an I/O error occurs while reading the file
+     */
+    public static Document getDocument(Path path, DocumentBuilderPool documentBuilderPool) throws IOException {
 
-        try {
-            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document document = null;
 
-            try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(path))) {
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
 
-                if (zipInputStream.getNextEntry() != null) {
-                    document = builder.parse(zipInputStream);
-                }
+            if (zipInputStream.getNextEntry() != null) {
+                document = documentBuilderPool.parse(zipInputStream);
             }
+        }
+
+        return document;
+    }
 
-        } catch (ParserConfigurationException | SAXException e) {
-            throw new IOException(e);
+    /**
+     * Returns the GenoPro XML document without the elements not needed for
+     * the given parser options, i.e. text labels and excluded field groups.
+     * Skipped elements are never turned into DOM nodes, so the document is
+     * built faster and takes less memory, but it should be processed using
+     * the same options.
+     *
+     * @param path                  path to GenoPro file
+     * @param documentParserOptions document parser options
+     * @return the GenoPro XML document
+     * @throws IOException if an I/O error occurs while reading the file
+     */
+    public static Document getDocument(Path path, DocumentParserOptions documentParserOptions) throws IOException {
+
+        ElementFilter elementFilter = ElementFilter.fromOptions(documentParserOptions);
+
+        if (elementFilter.isEmpty()) {
+            return getDocument(path);
+        }
+
+        Document document = null;
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+
+            if (zipInputStream.getNextEntry() != null) {
+                document = FilteredDocumentBuilder.parse(zipInputStream, elementFilter,
+                        DocumentBuilderPool.getDefault());
+            }
         }
 
         return document;
     }
 
     /**
-     * Returns the basic info of GenoPro document.
+     * Returns the stream of all individuals parsed lazily from the GenoPro
+     * file, so just the current individual and a few lookup maps are held in
+     * memory. The parser options are applied the same way as in
+     * DocumentDataUtil.getGenoMapDataList. The stream should be closed
+     * after use.
+     *
+     * @param path                  path to GenoPro file
+     * @param documentParserOptions document parser options
+     * @return the stream of all individuals
+     */
+    public static Stream<Individual> streamIndividuals(Path path, DocumentParserOptions documentParserOptions) {
+        return new DocumentEntityReader(path, documentParserOptions, EnumSet.of(DocumentEntityType.INDIVIDUAL))
+                .stream().map(Individual.class::cast);
+    }
+
+    /**
+     * Returns the stream of all families parsed lazily from the GenoPro file.
+     * Apart from the current family, only the details of individuals and
+     * pedigree links needed for resolving family members are held in memory.
+     * The stream should be closed after use.
+     *
+     * @param path                  path to GenoPro file
+     * @param documentParserOptions document parser options
+     * @return the stream of all families
+     */
+    public static Stream<Family> streamFamilies(Path path, DocumentParserOptions documentParserOptions) {
+        return new DocumentEntityReader(path, documentParserOptions, EnumSet.of(DocumentEntityType.FAMILY))
+                .stream().map(Family.class::cast);
+    }
+
+    /**
+     * Returns the basic info of GenoPro document. The display style is taken
+     * from the Tag of the top-level Display section.
      *
      * @param document GenoPro XML document
      * @return the basic info of GenoPro document
@@ -107,15 +188,18 @@ public class DocumentParser {
 
         if (documentNode != null) {
 
-            Map<String, String> nodeValueMap = getNodeValueMap(documentNode);
-            String title = nodeValueMap.getOrDefault("Title", "");
-            String description = nodeValueMap.getOrDefault("Description", "");
+            String[] documentValues = getChildValues(documentNode, DOCUMENT_FIELDS);
+            String title = (documentValues[0] != null) ? documentValues[0] : "";
+            String description = (documentValues[1] != null) ? documentValues[1] : "";
             DisplayStyle displayStyle = DisplayStyle.NOTHING;
 
-            Node displayNode = getSingleNode(document.getDocumentElement(), "Tag");
+            Node displayNode = getChildNode(document.getDocumentElement(), "Display");
 
             if (displayNode != null) {
-                displayStyle = DisplayStyle.parse(displayNode.getTextContent());
+                String tag = getChildValues(displayNode, DISPLAY_FIELDS)[0];
+                if (tag != null) {
+                    displayStyle = DisplayStyle.parse(tag);
+                }
             }
 
             documentInfo = new DocumentInfo(title, description, displayStyle);
@@ -125,7 +209,8 @@ public class DocumentParser {
     }
 
     /**
-     * Returns the map of all GenoMaps.
+     * Returns the map of all GenoMaps. GenoMap IDs are unique within the
+     * document, colliding IDs get a numeric suffix.
      *
      * @param document GenoPro XML document
      * @return the map of all GenoMaps
@@ -133,30 +218,40 @@ public class DocumentParser {
     public static Map<String, GenoMap> getGenoMapMap(Document document) {
 
         Map<String, GenoMap> genoMapMap = new LinkedHashMap<>();
+        Set<String> genoMapIdSet = new HashSet<>();
 
         NodeList nodeList = document.getElementsByTagName("GenoMap");
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
+        for (int i = 0, length = nodeList.getLength(); i < length; i++) {
 
-            Element element = (Element) nodeList.item(i);
+            GenoMap genoMap = getGenoMap((Element) nodeList.item(i), genoMapIdSet);
 
-            String name = element.getAttribute("Name");
+            if (genoMap != null) {
+                genoMapMap.put(genoMap.name(), genoMap);
+            }
+        }
 
-            if (!name.isEmpty()) {
+        return genoMapMap;
+    }
 
-                String boundaryRect = element.getAttribute("BoundaryRect");
+    static GenoMap getGenoMap(Element genoMapElement, Set<String> genoMapIdSet) {
 
-                if (!boundaryRect.isEmpty()) {
-                    Map<String, String> nodeValueMap = getNodeValueMap(element);
-                    String title = nodeValueMap.get("Title");
-                    String id = GenoMapIdUtil.getGenoMapId((title != null) ? title : name);
+        String title = getChildValues(genoMapElement, GENOMAP_FIELDS)[0];
 
-                    genoMapMap.put(name, new GenoMap(id, name, title, getBoundaryRect(boundaryRect)));
-                }
-            }
+        return getGenoMap(genoMapElement.getAttribute("Name"), title, genoMapElement.getAttribute("BoundaryRect"),
+                genoMapIdSet);
+    }
+
+    static GenoMap getGenoMap(String name, String title, String boundaryRect, Set<String> genoMapIdSet) {
+
+        GenoMap genoMap = null;
+
+        if (!name.isEmpty() && !boundaryRect.isEmpty()) {
+            String id = GenoMapIdUtil.getUniqueGenoMapId((title != null) ? title : name, genoMapIdSet);
+            genoMap = new GenoMap(id, name, title, getBoundaryRect(boundaryRect));
         }
 
-        return genoMapMap;
+        return genoMap;
     }
 
     /**
@@ -170,10 +265,26 @@ public class DocumentParser {
      */
     public static Map<String, Individual> getIndividualMap(
             Document document, Map<String, GenoMap> genoMapMap, DocumentParserOptions documentParserOptions) {
+        return getIndividualMap(document, genoMapMap, getPlaceMap(document), documentParserOptions);
+    }
+
+    /**
+     * Returns the map of all individuals with birth and death places resolved
+     * using the given place map. The map can be pre-filtered if additional
+     * options are specified.
+     *
+     * @param document              GenoPro XML document
+     * @param genoMapMap            map of all GenoMaps
+     * @param placeMap              map of all places
+     * @param documentParserOptions document parser options
+     * @return the map of all individuals
+     */
+    public static Map<String, Individual> getIndividualMap(Document document, Map<String, GenoMap> genoMapMap,
+            Map<String, String> placeMap, DocumentParserOptions documentParserOptions) {
 
         Map<String, Individual> individualMap = new HashMap<>();
 
-        Set<Individual> individualSet = getIndividualSet(document, genoMapMap, documentParserOptions);
+        Set<Individual> individualSet = getIndividualSet(document, genoMapMap, placeMap, documentParserOptions);
 
         for (Individual individual : individualSet) {
             individualMap.put(individual.id(), individual);
@@ -193,14 +304,31 @@ public class DocumentParser {
      */
     public static Set<Individual> getIndividualSet(
             Document document, Map<String, GenoMap> genoMapMap, DocumentParserOptions documentParserOptions) {
+        return getIndividualSet(document, genoMapMap, getPlaceMap(document), documentParserOptions);
+    }
+
+    /**
+     * Returns the set of all individuals with birth and death places resolved
+     * using the given place map. The list can be pre-filtered if additional
+     * options are specified.
+     *
+     * @param document              GenoPro XML document
+     * @param genoMapMap            map of all GenoMaps
+     * @param placeMap              map of all places
+     * @param documentParserOptions document parser options
+     * @return the set of all individuals
+     */
+    public static Set<Individual> getIndividualSet(Document document, Map<String, GenoMap> genoMapMap,
+            Map<String, String> placeMap, DocumentParserOptions documentParserOptions) {
 
         Set<Individual> individualSet = new HashSet<>();
 
         NodeList nodeList = document.getElementsByTagName("Individual");
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
+        for (int i = 0, length = nodeList.getLength(); i < length; i++) {
 
-            Individual individual = getIndividual(genoMapMap, (Element) nodeList.item(i));
+            Individual individual = getIndividual(
+                    genoMapMap, placeMap, (Element) nodeList.item(i), documentParserOptions);
 
             if (!(individual.name() == null && documentParserOptions.hasUnknownIndividualsExcluded())) {
                 individualSet.add(individual);
@@ -218,7 +346,7 @@ public class DocumentParser {
         return individualSet;
     }
 
-    private static Set<Individual> getDeduplicatedIndividualSet(
+    static Set<Individual> getDeduplicatedIndividualSet(
             Set<Individual> individualSet, DocumentParserOptions documentParserOptions) {
 
         Set<Individual> deduplicatedIndividualSet = new HashSet<>();
@@ -282,32 +410,45 @@ public class DocumentParser {
         LocalDate anonymizedSinceLocalDate = documentParserOptions.getAnonymizedSinceDate();
 
         boolean anonymizeDatesOnly = anonymizedSinceLocalDate.equals(LocalDate.now());
+        boolean eventsIncluded = documentParserOptions.hasField(DocumentField.EVENTS);
 
         for (Individual individual : individualSet) {
+            anonymizedIndividualSet.add(getAnonymizedIndividual(
+                    individual, anonymizedSinceLocalDate, anonymizeDatesOnly, eventsIncluded));
+        }
 
-            if (individual.isDeceased() || (!anonymizeDatesOnly
-                    && individual.birth() != null
-                    && individual.birth().hasDate()
-                    && individual.birth().date().localDate().isBefore(anonymizedSinceLocalDate))) {
+        return anonymizedIndividualSet;
+    }
 
-                anonymizedIndividualSet.add(individual);
+    // if events are excluded, the birth is parsed just to tell whether the individual is living and dropped here
+    static Individual getAnonymizedIndividual(Individual individual, LocalDate anonymizedSinceLocalDate,
+            boolean anonymizeDatesOnly, boolean eventsIncluded) {
 
-            } else {
-                if (anonymizeDatesOnly) {
-                    anonymizedIndividualSet.add(new Individual(individual.id(), individual.key(), individual.genoMap(),
-                            individual.hyperlink(), individual.name(), individual.gender(), null, null, false,
-                            false, individual.position(), individual.boundaryRect(),
-                            individual.highlightKeySet()));
+        if (individual.isDeceased() || (!anonymizeDatesOnly
+                && individual.birth() != null
+                && individual.birth().hasDate()
+                && individual.birth().date().localDate().isBefore(anonymizedSinceLocalDate))) {
 
-                } else {
-                    anonymizedIndividualSet.add(new Individual(individual.id(), individual.key(), individual.genoMap(),
-                            null, null, individual.gender(), null, null, false, true, individual.position(),
-                            individual.boundaryRect(), individual.highlightKeySet()));
-                }
+            if (eventsIncluded || individual.birth() == null) {
+                return individual;
             }
-        }
 
-        return anonymizedIndividualSet;
+            return new Individual(individual.id(), individual.key(), individual.genoMap(), individual.hyperlink(),
+                    individual.name(), individual.gender(), null, null, individual.isDeceased(), false,
+                    individual.position(), individual.boundaryRect(), individual.highlightKeySet());
+
+        } else {
+            if (anonymizeDatesOnly) {
+                return new Individual(individual.id(), individual.key(), individual.genoMap(),
+                        individual.hyperlink(), individual.name(), individual.gender(), null, null, false,
+                        false, individual.position(), individual.boundaryRect(), individual.highlightKeySet());
+
+            } else {
+                return new Individual(individual.id(), individual.key(), individual.genoMap(),
+                        null, null, individual.gender(), null, null, false, true, individual.position(),
+                        individual.boundaryRect(), individual.highlightKeySet());
+            }
+        }
     }
 
     /**
@@ -323,136 +464,174 @@ public class DocumentParser {
     public static Set<Family> getFamilySet(
             Document document, Map<String, GenoMap> genoMapMap, Map<String, Individual> individualMap,
             Map<String, List<PedigreeLink>> familyPedigreeLinkMap, Map<String, String> placeMap) {
+        return getFamilySet(document, genoMapMap, individualMap, familyPedigreeLinkMap, placeMap,
+                new DocumentParserOptions());
+    }
+
+    /**
+     * Returns the set of all families together with the pedigree links. Only
+     * fields selected in the parser options are extracted.
+     *
+     * @param document              GenoPro XML document
+     * @param genoMapMap            map of all GenoMaps
+     * @param individualMap         map of all individuals
+     * @param familyPedigreeLinkMap map of family pedigree links
+     * @param placeMap              map of all places
+     * @param documentParserOptions document parser options
+     * @return the set of all families
+     */
+    public static Set<Family> getFamilySet(
+            Document document, Map<String, GenoMap> genoMapMap, Map<String, Individual> individualMap,
+            Map<String, List<PedigreeLink>> familyPedigreeLinkMap, Map<String, String> placeMap,
+            DocumentParserOptions documentParserOptions) {
 
         Set<Family> familySet = new HashSet<>();
 
-        Map<String, FamilyEvent> marriageMap = getMarriageMap(document, placeMap);
+        Map<String, FamilyEvent> marriageMap = documentParserOptions.hasField(DocumentField.EVENTS)
+                ? getMarriageMap(document, placeMap) : Map.of();
 
         NodeList nodeList = document.getElementsByTagName("Family");
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
+        for (int i = 0, length = nodeList.getLength(); i < length; i++) {
+
+            Family family = getFamily((Element) nodeList.item(i), genoMapMap, individualMap, familyPedigreeLinkMap,
+                    marriageMap, documentParserOptions);
+
+            if (family != null) {
+                familySet.add(family);
+            }
+        }
 
-            Element familyElement = (Element) nodeList.item(i);
+        return familySet;
+    }
 
-            List<FamilyEvent> familyEventList = new ArrayList<>();
+    static Family getFamily(Element familyElement, Map<String, GenoMap> genoMapMap,
+            Map<String, Individual> individualMap, Map<String, List<PedigreeLink>> familyPedigreeLinkMap,
+            Map<String, FamilyEvent> marriageMap, DocumentParserOptions documentParserOptions) {
 
-            Node unionsNode = getSingleNode(familyElement, "Unions");
+        Family family = null;
 
-            if (unionsNode != null) {
-                String unions = unionsNode.getTextContent();
-                if (marriageMap.containsKey(unions)) {
-                    familyEventList.add(marriageMap.get(unions));
-                }
-            }
+        List<FamilyEvent> familyEventList = new ArrayList<>();
 
-            Map<String, String> familyNodeValueMap = getNodeValueMap(familyElement);
+        Node unionsNode = getSingleNode(familyElement, "Unions");
 
-            String familyId = familyElement.getAttribute("ID");
+        if (unionsNode != null) {
+            String unions = unionsNode.getTextContent();
+            if (marriageMap.containsKey(unions)) {
+                familyEventList.add(marriageMap.get(unions));
+            }
+        }
 
-            if (familyPedigreeLinkMap.containsKey(familyId)) {
+        String familyId = familyElement.getAttribute("ID");
 
-                List<PedigreeLink> pedigreeLinkList = familyPedigreeLinkMap.get(familyId);
+        if (familyPedigreeLinkMap.containsKey(familyId)) {
 
-                String fatherId = null;
-                String motherId = null;
+            List<PedigreeLink> pedigreeLinkList = familyPedigreeLinkMap.get(familyId);
 
-                for (PedigreeLink pedigreeLink : pedigreeLinkList) {
+            String fatherId = null;
+            String motherId = null;
 
-                    if (pedigreeLink.isParent()) {
+            for (PedigreeLink pedigreeLink : pedigreeLinkList) {
 
-                        Individual individual = individualMap.get(pedigreeLink.individualId());
+                if (pedigreeLink.isParent()) {
 
-                        if (individual.isMale()) {
-                            fatherId = individual.id();
+                    Individual individual = individualMap.get(pedigreeLink.individualId());
 
-                        } else if (individual.isFemale()) {
-                            motherId = individual.id();
-                        }
+                    if (individual.isMale()) {
+                        fatherId = individual.id();
+
+                    } else if (individual.isFemale()) {
+                        motherId = individual.id();
                     }
                 }
+            }
 
-                boolean isParentAnonymized = false;
+            boolean isParentAnonymized = false;
 
-                for (PedigreeLink pedigreeLink : pedigreeLinkList) {
+            for (PedigreeLink pedigreeLink : pedigreeLinkList) {
 
-                    if (pedigreeLink.isParent()) {
+                if (pedigreeLink.isParent()) {
 
-                        Individual individual = individualMap.get(pedigreeLink.individualId());
+                    Individual individual = individualMap.get(pedigreeLink.individualId());
 
-                        if (individual.isAnonymized()) {
-                            isParentAnonymized = true;
-                            break;
-                        }
+                    if (individual.isAnonymized()) {
+                        isParentAnonymized = true;
+                        break;
                     }
                 }
+            }
 
-                boolean isChildAnonymized = false;
+            boolean isChildAnonymized = false;
 
-                for (PedigreeLink pedigreeLink : pedigreeLinkList) {
-                    if (!pedigreeLink.isParent()) {
-                        if (individualMap.get(pedigreeLink.individualId()).isAnonymized()) {
-                            isChildAnonymized = true;
-                            break;
-                        }
+            for (PedigreeLink pedigreeLink : pedigreeLinkList) {
+                if (!pedigreeLink.isParent()) {
+                    if (individualMap.get(pedigreeLink.individualId()).isAnonymized()) {
+                        isChildAnonymized = true;
+                        break;
                     }
                 }
+            }
+
+            boolean hasChildren = false;
+
+            for (PedigreeLink pedigreeLink : pedigreeLinkList) {
+                if (!pedigreeLink.isParent()) {
+                    hasChildren = true;
+                    break;
+                }
+            }
 
-                boolean hasChildren = false;
+            List<PedigreeLink> childlessPedigreeLinkList = new ArrayList<>();
 
+            if (!isParentAnonymized && hasChildren && isChildAnonymized) {
                 for (PedigreeLink pedigreeLink : pedigreeLinkList) {
-                    if (!pedigreeLink.isParent()) {
-                        hasChildren = true;
-                        break;
+                    if (pedigreeLink.isParent()) {
+                        childlessPedigreeLinkList.add(pedigreeLink);
                     }
                 }
 
-                List<PedigreeLink> childlessPedigreeLinkList = new ArrayList<>();
+                pedigreeLinkList = childlessPedigreeLinkList;
+            }
 
-                if (!isParentAnonymized && hasChildren && isChildAnonymized) {
-                    for (PedigreeLink pedigreeLink : pedigreeLinkList) {
-                        if (pedigreeLink.isParent()) {
-                            childlessPedigreeLinkList.add(pedigreeLink);
-                        }
-                    }
+            if (!(isParentAnonymized && !hasChildren) && !(isParentAnonymized && isChildAnonymized)) {
 
-                    pedigreeLinkList = childlessPedigreeLinkList;
-                }
+                String[] familyValues = getChildValues(familyElement, FAMILY_FIELDS);
+                String label = familyValues[0];
+                FamilyLineType familyLineType = FamilyLineType.parse(familyValues[1]);
+                FamilyRelationType relationType = FamilyRelationType.parse(familyValues[2]);
+                Element positionElement = (Element) getSingleNode(familyElement, "Position");
+                GenoMap genoMap = getGenoMap(genoMapMap, positionElement.getAttribute("GenoMap"));
+                Position position = null;
+                BoundaryRect topBoundaryRect = null;
+                BoundaryRect bottomBoundaryRect = null;
 
-                if (!(isParentAnonymized && !hasChildren) && !(isParentAnonymized && isChildAnonymized)) {
+                if (documentParserOptions.hasField(DocumentField.GEOMETRY)) {
 
-                    String label = familyNodeValueMap.get("DisplayText");
-                    FamilyLineType familyLineType = FamilyLineType.parse(familyNodeValueMap.get("FamilyLine"));
-                    FamilyRelationType relationType = FamilyRelationType.parse(familyNodeValueMap.get("Relation"));
-                    Element positionElement = (Element) getSingleNode(familyElement, "Position");
-                    GenoMap genoMap = getGenoMap(genoMapMap, positionElement.getAttribute("GenoMap"));
-                    Position position = getPosition(positionElement.getFirstChild().getTextContent().trim());
+                    position = getPosition(positionElement.getFirstChild().getTextContent().trim());
 
-                    BoundaryRect topBoundaryRect = null;
                     Node topNode = getSingleNode(positionElement, "Top");
                     if (topNode != null) {
-                        Map<String, String> topNodeValueMap = getNodeValueMap(topNode);
-                        topBoundaryRect = getBoundaryRect(topNodeValueMap.get("Left") + "," + topNodeValueMap.get("Right"));
+                        String[] topValues = getChildValues(topNode, FAMILY_LINE_FIELDS);
+                        topBoundaryRect = getBoundaryRect(topValues[0], topValues[1]);
                     }
 
-                    BoundaryRect bottomBoundaryRect = null;
                     Node bottomNode = getSingleNode(positionElement, "Bottom");
                     if (bottomNode != null) {
-                        Map<String, String> bottomNodeValueMap = getNodeValueMap(bottomNode);
-                        bottomBoundaryRect = getBoundaryRect(bottomNodeValueMap.get("Left") + ","
-                                + bottomNodeValueMap.get("Right"));
+                        String[] bottomValues = getChildValues(bottomNode, FAMILY_LINE_FIELDS);
+                        bottomBoundaryRect = getBoundaryRect(bottomValues[0], bottomValues[1]);
                     }
-
-                    familySet.add(new Family(familyId, getFamilyKey(familyId), fatherId, motherId, genoMap, label,
-                            relationType, familyLineType, familyEventList, pedigreeLinkList, position, topBoundaryRect,
-                            bottomBoundaryRect));
                 }
 
-            } else {
-                System.out.println("Family not found: " + familyId);
+                family = new Family(familyId, getFamilyKey(familyId), fatherId, motherId, genoMap, label,
+                        relationType, familyLineType, familyEventList, pedigreeLinkList, position, topBoundaryRect,
+                        bottomBoundaryRect);
             }
+
+        } else {
+            System.out.println("Family not found: " + familyId);
         }
 
-        return familySet;
+        return family;
     }
 
     /**
@@ -464,65 +643,94 @@ public class DocumentParser {
      */
     public static Map<String, List<PedigreeLink>> getFamilyPedigreeLinkMap(
             Document document, Map<String, Individual> individualMap) {
+        return getFamilyPedigreeLinkMap(document, individualMap, new DocumentParserOptions());
+    }
+
+    /**
+     * Returns the map of pedigree links for all families. Positions are
+     * resolved only if geometry is selected in the parser options.
+     *
+     * @param document              GenoPro XML document
+     * @param individualMap         map of all individuals
+     * @param documentParserOptions document parser options
+     * @return the map of family pedigree links for all families
+     */
+    public static Map<String, List<PedigreeLink>> getFamilyPedigreeLinkMap(
+            Document document, Map<String, Individual> individualMap, DocumentParserOptions documentParserOptions) {
 
         Map<String, List<PedigreeLink>> familyPedigreeLinkMap = new HashMap<>();
 
         NodeList nodeList = document.getElementsByTagName("PedigreeLink");
 
         Map<String, Position> individualPositionMap = new HashMap<>();
+        Map<String, Position> twinPositionMap = new HashMap<>();
 
-        for (Entry<String, Individual> entry : individualMap.entrySet()) {
-            individualPositionMap.put(entry.getKey(), entry.getValue().position());
-        }
+        if (documentParserOptions.hasField(DocumentField.GEOMETRY)) {
+
+            for (Entry<String, Individual> entry : individualMap.entrySet()) {
+                individualPositionMap.put(entry.getKey(), entry.getValue().position());
+            }
 
-        Map<String, Position> twinPositionMap = getTwinPositionMap(document);
+            twinPositionMap = getTwinPositionMap(document);
+        }
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
+        for (int i = 0, length = nodeList.getLength(); i < length; i++) {
 
             Element pedigreeLinkElement = (Element) nodeList.item(i);
 
             String familyId = pedigreeLinkElement.getAttribute("Family");
-            String individualId = pedigreeLinkElement.getAttribute("Individual");
-            PedigreeLinkType pedigreeLinkType = PedigreeLinkType.parse(pedigreeLinkElement.getAttribute("PedigreeLink"));
-            Position position = individualPositionMap.get(individualId);
-            String twin = pedigreeLinkElement.getAttribute("Twin");
-            Position twinPosition = twin.isEmpty() ? null : twinPositionMap.get(twin);
 
             if (!familyPedigreeLinkMap.containsKey(familyId)) {
                 familyPedigreeLinkMap.put(familyId, new ArrayList<>());
             }
 
-            familyPedigreeLinkMap.get(familyId).add(new PedigreeLink(individualId, pedigreeLinkType, position, twinPosition));
+            familyPedigreeLinkMap.get(familyId).add(
+                    getPedigreeLink(pedigreeLinkElement, individualPositionMap, twinPositionMap));
         }
 
         return familyPedigreeLinkMap;
     }
 
-    private static Map<String, FamilyEvent> getMarriageMap(Document document, Map<String, String> placeMap) {
+    static PedigreeLink getPedigreeLink(Element pedigreeLinkElement, Map<String, Position> individualPositionMap,
+            Map<String, Position> twinPositionMap) {
+
+        String individualId = pedigreeLinkElement.getAttribute("Individual");
+        PedigreeLinkType pedigreeLinkType = PedigreeLinkType.parse(pedigreeLinkElement.getAttribute("PedigreeLink"));
+        Position position = individualPositionMap.get(individualId);
+        String twin = pedigreeLinkElement.getAttribute("Twin");
+        Position twinPosition = twin.isEmpty() ? null : twinPositionMap.get(twin);
+
+        return new PedigreeLink(individualId, pedigreeLinkType, position, twinPosition);
+    }
+
+    static Map<String, FamilyEvent> getMarriageMap(Document document, Map<String, String> placeMap) {
 
         Map<String, FamilyEvent> marriageMap = new HashMap<>();
 
         NodeList nodeList = document.getElementsByTagName("Marriage");
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
+        for (int i = 0, length = nodeList.getLength(); i < length; i++) {
 
             Element marriageElement = (Element) nodeList.item(i);
-            Map<String, String> marriageNodeValueMap = getNodeValueMap(marriageElement);
 
-            String id = marriageElement.getAttribute("ID");
-            GenoDate date = GenoDate.fromDate(marriageNodeValueMap.get("Date"));
-            String place = null;
-            if (marriageNodeValueMap.containsKey("Place")) {
-                place = placeMap.getOrDefault(marriageNodeValueMap.get("Place"), null);
-            }
-            String comment = marriageNodeValueMap.get("Comment");
-
-            marriageMap.put(id, new FamilyEvent(FamilyEvent.MARRIAGE, date, place, comment));
+            marriageMap.put(marriageElement.getAttribute("ID"), getMarriage(marriageElement, placeMap));
         }
 
         return marriageMap;
     }
 
+    static FamilyEvent getMarriage(Element marriageElement, Map<String, String> placeMap) {
+
+        String[] marriageValues = getChildValues(marriageElement, EVENT_FIELDS);
+
+        GenoDate date = GenoDate.fromDate(marriageValues[0]);
+        String placeId = marriageValues[1];
+        String place = getPlaceName(placeId, placeMap);
+        String comment = marriageValues[2];
+
+        return new FamilyEvent(FamilyEvent.MARRIAGE, date, placeId, place, comment);
+    }
+
     /**
      * Returns the map of all places
      *
@@ -533,39 +741,95 @@ public class DocumentParser {
 
         Map<String, String> placeMap = new HashMap<>();
 
+        for (Place place : getPlaceDetailMap(document).values()) {
+            placeMap.put(place.id(), place.name());
+        }
+
+        return placeMap;
+    }
+
+    /**
+     * Returns the map of all places including their parent places and
+     * coordinates.
+     *
+     * @param document GenoPro XML document
+     * @return the map of all places
+     */
+    public static Map<String, Place> getPlaceDetailMap(Document document) {
+
+        Map<String, Place> placeMap = new LinkedHashMap<>();
+
         NodeList nodeList = document.getElementsByTagName("Place");
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
+        for (int i = 0, length = nodeList.getLength(); i < length; i++) {
 
             Element placeElement = (Element) nodeList.item(i);
-            Map<String, String> placeNodeValueMap = getNodeValueMap(placeElement);
-
-            String id = placeElement.getAttribute("ID");
-            String place = placeNodeValueMap.get("Name");
 
-            placeMap.put(id, place);
+            // event places are also Place elements, but without ID
+            if (placeElement.hasAttribute("ID")) {
+                Place place = getPlace(placeElement);
+                placeMap.put(place.id(), place);
+            }
         }
 
         return placeMap;
     }
 
-    private static Map<String, Position> getTwinPositionMap(Document document) {
+    static Place getPlace(Element placeElement) {
+
+        String[] placeValues = getChildValues(placeElement, PLACE_FIELDS);
+
+        return new Place(placeElement.getAttribute("ID"), placeValues[0], placeValues[1],
+                getCoordinate(placeValues[2]), getCoordinate(placeValues[3]));
+    }
+
+    // both "49.19" and "N49.19" forms are accepted, S and W stand for negative values
+    private static Double getCoordinate(String coordinate) {
+
+        if (coordinate == null || coordinate.isBlank()) {
+            return null;
+        }
+
+        String value = coordinate.trim();
+        double sign = 1;
+
+        char hemisphere = Character.toUpperCase(value.charAt(0));
+
+        if (hemisphere == 'N' || hemisphere == 'E' || hemisphere == 'S' || hemisphere == 'W') {
+            sign = (hemisphere == 'S' || hemisphere == 'W') ? -1 : 1;
+            value = value.substring(1).trim();
+        }
+
+        try {
+            return sign * Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Map<String, Position> getTwinPositionMap(Document document) {
 
         Map<String, Position> twinPositionMap = new HashMap<>();
 
         NodeList nodeList = document.getElementsByTagName("Twin");
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
+        for (int i = 0, length = nodeList.getLength(); i < length; i++) {
 
             Element twinElement = (Element) nodeList.item(i);
-            String position = getSingleNode(twinElement, "Position").getTextContent();
 
-            twinPositionMap.put(twinElement.getAttribute("ID"), new Position(Integer.parseInt(position), 0));
+            twinPositionMap.put(twinElement.getAttribute("ID"), getTwinPosition(twinElement));
         }
 
         return twinPositionMap;
     }
 
+    static Position getTwinPosition(Element twinElement) {
+
+        String position = getSingleNode(twinElement, "Position").getTextContent();
+
+        return new Position(IntScanner.parseInt(position, 0), 0);
+    }
+
     /**
      * Returns the set of all labels
      *
@@ -574,6 +838,20 @@ public class DocumentParser {
      * @return the set of all labels
      */
     public static Set<Label> getLabelSet(Document document, Map<String, GenoMap> genoMapMap) {
+        return getLabelSet(document, genoMapMap, new DocumentParserOptions());
+    }
+
+    /**
+     * Returns the set of all labels. Only fields selected in the parser
+     * options are extracted.
+     *
+     * @param document              GenoPro XML document
+     * @param genoMapMap            map of all GenoMaps
+     * @param documentParserOptions document parser options
+     * @return the set of all labels
+     */
+    public static Set<Label> getLabelSet(
+            Document document, Map<String, GenoMap> genoMapMap, DocumentParserOptions documentParserOptions) {
 
         Set<Label> labelSet = new HashSet<>();
 
@@ -582,86 +860,120 @@ public class DocumentParser {
         if (labelsElement != null) {
             NodeList nodeList = labelsElement.getElementsByTagName("Label");
 
-            for (int i = 0; i < nodeList.getLength(); i++) {
+            for (int i = 0, length = nodeList.getLength(); i < length; i++) {
 
-                Element labelElement = (Element) nodeList.item(i);
-                Element positionElement = (Element) getSingleNode(labelElement, "Position");
-                GenoMap genoMap = getGenoMap(genoMapMap, positionElement.getAttribute("GenoMap"));
+                labelSet.add(getLabel((Element) nodeList.item(i), genoMapMap, documentParserOptions));
+            }
+        }
 
-                int zIndex = positionElement.hasAttribute("z") ? Integer.parseInt(positionElement.getAttribute("z")) : 0;
-                Position position = getPosition(positionElement.getFirstChild().getTextContent().trim());
-                int width = Integer.parseInt(positionElement.getAttribute("Width"));
-                int height = Integer.parseInt(positionElement.getAttribute("Height"));
-                Rect rect = new Rect(position.x(), position.y(), width, height);
-                Element textElement = (Element) getSingleNode(labelElement, "Text");
-                String text = textElement.getFirstChild().getTextContent().trim();
-                Element alignmentElement = (Element) getSingleNode(textElement, "Alignment");
-
-                Size textSize = getSize(positionElement.getAttribute("Size"), Size.M);
-                Alignment horizontalAlignment = Alignment.CENTER;
-                Alignment verticalAlignment = Alignment.CENTER;
-
-                if (alignmentElement != null) {
-                    horizontalAlignment = getAlignment(alignmentElement.getAttribute("Horizontal"), Alignment.CENTER);
-                    verticalAlignment = getAlignment(alignmentElement.getAttribute("Vertical"), Alignment.CENTER);
-                }
+        return labelSet;
+    }
 
-                int padding = Integer.parseInt(textElement.getAttribute("Padding"));
+    static Label getLabel(
+            Element labelElement, Map<String, GenoMap> genoMapMap, DocumentParserOptions documentParserOptions) {
 
-                Element colorElement = (Element) getSingleNode(labelElement, "Color");
-                Color textColor = Color.fromHex(colorElement.getAttribute("Text"));
-                Color fillColor = Color.fromHex(colorElement.getAttribute("Fill"));
-                Color borderColor = Color.fromHex(colorElement.getAttribute("Border"));
+        Element positionElement = (Element) getSingleNode(labelElement, "Position");
+        GenoMap genoMap = getGenoMap(genoMapMap, positionElement.getAttribute("GenoMap"));
+        Element textElement = (Element) getSingleNode(labelElement, "Text");
+        String text = textElement.getFirstChild().getTextContent().trim();
+
+        int zIndex = 0;
+        Rect rect = null;
+
+        if (documentParserOptions.hasField(DocumentField.GEOMETRY)) {
+            zIndex = IntScanner.parseInt(positionElement.getAttribute("z"), 0);
+            Position position = getPosition(positionElement.getFirstChild().getTextContent().trim());
+            int width = IntScanner.parseInt(positionElement.getAttribute("Width"), 0);
+            int height = IntScanner.parseInt(positionElement.getAttribute("Height"), 0);
+            rect = new Rect(position.x(), position.y(), width, height);
+        }
 
-                Element borderElement = (Element) getSingleNode(labelElement, "Border");
-                Size borderSize = textSize;
-                String borderPattern = "-";
+        LabelStyle labelStyle = documentParserOptions.hasField(DocumentField.STYLING)
+                ? getLabelStyle(labelElement, positionElement, textElement) : null;
 
-                if (borderElement != null) {
-                    borderSize = getSize(borderElement.getAttribute("Width"), borderSize);
-                    borderPattern = borderElement.hasAttribute("Pattern") ? borderElement.getAttribute("Pattern") : "-";
-                }
+        return new Label(genoMap, text, rect, zIndex, labelStyle);
+    }
 
-                Border border = new Border(borderColor, borderSize, borderPattern);
+    private static LabelStyle getLabelStyle(Element labelElement, Element positionElement, Element textElement) {
 
-                LabelStyle labelStyle = new LabelStyle(textSize, horizontalAlignment, verticalAlignment, padding,
-                        textColor, fillColor, border);
-                labelSet.add(new Label(genoMap, text, rect, zIndex, labelStyle));
-            }
+        Element alignmentElement = (Element) getSingleNode(textElement, "Alignment");
+
+        Size textSize = getSize(positionElement.getAttribute("Size"), Size.M);
+        Alignment horizontalAlignment = Alignment.CENTER;
+        Alignment verticalAlignment = Alignment.CENTER;
+
+        if (alignmentElement != null) {
+            horizontalAlignment = getAlignment(alignmentElement.getAttribute("Horizontal"), Alignment.CENTER);
+            verticalAlignment = getAlignment(alignmentElement.getAttribute("Vertical"), Alignment.CENTER);
         }
 
-        return labelSet;
+        int padding = IntScanner.parseInt(textElement.getAttribute("Padding"), 0);
+
+        Element colorElement = (Element) getSingleNode(labelElement, "Color");
+        Color textColor = Color.fromHex(colorElement.getAttribute("Text"));
+        Color fillColor = Color.fromHex(colorElement.getAttribute("Fill"));
+        Color borderColor = Color.fromHex(colorElement.getAttribute("Border"));
+
+        Element borderElement = (Element) getSingleNode(labelElement, "Border");
+        Size borderSize = textSize;
+        String borderPattern = "-";
+
+        if (borderElement != null) {
+            borderSize = getSize(borderElement.getAttribute("Width"), borderSize);
+            borderPattern = borderElement.hasAttribute("Pattern") ? borderElement.getAttribute("Pattern") : "-";
+        }
+
+        Border border = new Border(borderColor, borderSize, borderPattern);
+
+        return new LabelStyle(textSize, horizontalAlignment, verticalAlignment, padding,
+                textColor, fillColor, border);
     }
 
-    private static Individual getIndividual(Map<String, GenoMap> genoMapMap, Element individualElement) {
+    static Individual getIndividual(Map<String, GenoMap> genoMapMap, Map<String, String> placeMap,
+            Element individualElement, DocumentParserOptions documentParserOptions) {
 
         Name name = getName(individualElement);
 
-        Birth birth = getBirth(individualElement);
-        Death death = getDeath(individualElement);
+        Birth birth = null;
+        Death death = null;
+
+        if (documentParserOptions.hasField(DocumentField.EVENTS)) {
+            birth = getBirth(individualElement, placeMap);
+            death = getDeath(individualElement, placeMap);
+
+        } else if (documentParserOptions.getAnonymizedSinceDate() != null) {
+            // needed to tell whether the individual is living
+            birth = getBirth(individualElement, placeMap);
+        }
 
         String id = individualElement.getAttribute("ID");
         int key = getIndividualKey(id);
 
         String hyperlink = individualElement.getAttribute("IndividualInternalHyperlink");
 
-        Map<String, String> individualNodeValueMap = getNodeValueMap(individualElement);
+        String[] individualValues = getChildValues(individualElement, INDIVIDUAL_FIELDS);
 
-        Gender gender = Gender.parse(individualNodeValueMap.get("Gender"));
+        Gender gender = Gender.parse(individualValues[0]);
         boolean isDeceased = false;
 
-        String isDeceasedValue = individualNodeValueMap.get("IsDead");
+        String isDeceasedValue = individualValues[1];
 
         if (isDeceasedValue != null) {
             isDeceased = isDeceasedValue.equals("Y");
         }
 
         Element positionElement = (Element) getSingleNode(individualElement, "Position");
-        Position position = getPosition(positionElement.getTextContent());
-        BoundaryRect boundaryRect = getBoundaryRect(positionElement.getAttribute("BoundaryRect"));
         GenoMap genoMap = getGenoMap(genoMapMap, positionElement.getAttribute("GenoMap"));
+        Position position = null;
+        BoundaryRect boundaryRect = null;
+
+        if (documentParserOptions.hasField(DocumentField.GEOMETRY)) {
+            position = getPosition(positionElement.getTextContent());
+            boundaryRect = getBoundaryRect(positionElement.getAttribute("BoundaryRect"));
+        }
 
-        Set<String> highlightKeySet = getHighlightKeySet(individualElement);
+        Set<String> highlightKeySet = documentParserOptions.hasField(DocumentField.HIGHLIGHT_KEYS)
+                ? getHighlightKeySet(individualElement) : new HashSet<>();
 
         return new Individual(id, key, genoMap, hyperlink.isEmpty() ? null : new Hyperlink(null, hyperlink),
                 name, gender, birth, death, isDeceased, false, position, boundaryRect, highlightKeySet);
@@ -683,68 +995,59 @@ public class DocumentParser {
 
         if (nameNode != null) {
 
-            Map<String, String> nameMap = getNodeValueMap(nameNode);
-
-            String firstName = nameMap.get("First");
-            String middleName = nameMap.get("Middle");
-            String lastName = nameMap.get("Last");
-            String lastName2 = nameMap.get("Last2");
+            String[] nameValues = getChildValues(nameNode, NAME_FIELDS);
 
-            name = new Name(firstName, middleName, lastName, lastName2);
+            name = new Name(nameValues[0], nameValues[1], nameValues[2], nameValues[3]);
         }
 
         return name;
     }
 
-    private static Birth getBirth(Element individual) {
+    private static Birth getBirth(Element individual, Map<String, String> placeMap) {
 
         Birth birth = null;
 
         Node birthNode = getSingleNode(individual, "Birth");
 
         if (birthNode != null) {
-            Map<String, String> birthMap = getNodeValueMap(birthNode);
+            String[] birthValues = getChildValues(birthNode, EVENT_FIELDS);
 
-            if (birthMap.containsKey("Date")) {
-                String date = birthMap.get("Date");
-                String comment = birthMap.get("Comment");
-
-                birth = new Birth(GenoDate.fromDate(date), comment);
+            if (birthValues[0] != null) {
+                birth = new Birth(GenoDate.fromDate(birthValues[0]), birthValues[1],
+                        getPlaceName(birthValues[1], placeMap), birthValues[2]);
             }
         }
 
         return birth;
     }
 
-    private static Death getDeath(Element individual) {
+    private static Death getDeath(Element individual, Map<String, String> placeMap) {
 
         Death death = null;
 
         Node deathNode = getSingleNode(individual, "Death");
 
         if (deathNode != null) {
-            Map<String, String> deathMap = getNodeValueMap(deathNode);
-
-            if (deathMap.containsKey("Date")) {
-                String date = deathMap.get("Date");
-                String comment = deathMap.get("Comment");
+            String[] deathValues = getChildValues(deathNode, EVENT_FIELDS);
 
-                death = new Death(GenoDate.fromDate(date), comment);
+            if (deathValues[0] != null) {
+                death = new Death(GenoDate.fromDate(deathValues[0]), deathValues[1],
+                        getPlaceName(deathValues[1], placeMap), deathValues[2]);
             }
         }
 
         return death;
     }
 
+    private static String getPlaceName(String placeId, Map<String, String> placeMap) {
+        return (placeId != null) ? placeMap.get(placeId) : null;
+    }
+
     private static Position getPosition(String strPosition) {
 
         int[] values = new int[2];
 
-        String[] fragments = strPosition.split(",");
-
-        for (int i = 0; i < fragments.length; i++) {
-            values[i] = Integer.parseInt(fragments[i]);
-        }
+        IntScanner.scan(strPosition, values, 0);
 
         return new Position(values[0], values[1]);
     }
@@ -753,11 +1056,17 @@ public class DocumentParser {
 
         int[] values = new int[4];
 
-        String[] fragments = strBoundaryRect.split(",");
+        IntScanner.scan(strBoundaryRect, values, 0);
 
-        for (int i = 0; i < fragments.length; i++) {
-            values[i] = Integer.parseInt(fragments[i]);
-        }
+        return BoundaryRect.fromPoints(values[0], values[1], values[2], values[3]);
+    }
+
+    private static BoundaryRect getBoundaryRect(String strTopLeft, String strBottomRight) {
+
+        int[] values = new int[4];
+
+        IntScanner.scan(strTopLeft, values, 0);
+        IntScanner.scan(strBottomRight, values, 2);
 
         return BoundaryRect.fromPoints(values[0], values[1], values[2], values[3]);
     }
@@ -802,7 +1111,7 @@ public class DocumentParser {
         NodeList displayNodeList = individualElement.getElementsByTagName("Display");
 
         // display node can have various children, we look for Colors node only
-        for (int i = 0; i < displayNodeList.getLength(); i++) {
+        for (int i = 0, length = displayNodeList.getLength(); i < length; i++) {
             Node colorsNode = getSingleNode((Element) displayNodeList.item(i), "Colors");
             if (colorsNode != null) {
                 Node genderNode = getSingleNode((Element) colorsNode, "Gender");
@@ -832,22 +1141,38 @@ public class DocumentParser {
         return singleNode;
     }
 
-    private static Map<String, String> getNodeValueMap(Node node) {
+    private static Node getChildNode(Node node, String tagName) {
+
+        for (Node childNode = node.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
+            if (childNode.getNodeType() == Node.ELEMENT_NODE && childNode.getNodeName().equals(tagName)) {
+                return childNode;
+            }
+        }
+
+        return null;
+    }
+
+    // returns the text content of the requested child elements (null for missing ones), other elements are skipped
+    private static String[] getChildValues(Node node, String[] tagNames) {
 
-        Map<String, String> nodeValueMap = new HashMap<>();
+        String[] values = new String[tagNames.length];
 
-        Node childNode = node.getFirstChild();
+        for (Node childNode = node.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
 
-        while (childNode != null) {
+            if (childNode.getNodeType() == Node.ELEMENT_NODE) {
 
-            childNode = childNode.getNextSibling();
+                String tagName = childNode.getNodeName();
 
-            if (childNode instanceof Element element) {
-                nodeValueMap.put(element.getTagName(), element.getTextContent());
+                for (int i = 0; i < tagNames.length; i++) {
+                    if (tagNames[i].equals(tagName)) {
+                        values[i] = childNode.getTextContent();
+                        break;
+                    }
+                }
             }
         }
 
-        return nodeValueMap;
+        return values;
     }
 
     private static int getIndividualKey(String individualId) {
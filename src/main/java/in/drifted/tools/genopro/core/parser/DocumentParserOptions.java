@@ -16,6 +16,9 @@
 package in.drifted.tools.genopro.core.parser;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 public class DocumentParserOptions {
 
@@ -24,6 +27,7 @@ public class DocumentParserOptions {
     private boolean unknownIndividualsExcluded = false;
     private boolean hyperlinkedIndividualInstancesDeduplicated = false;
     private LocalDate anonymizedSinceDate = null;
+    private Set<DocumentField> fieldSet = EnumSet.allOf(DocumentField.class);
 
     public boolean hasTextLabelsExcluded() {
         return textLabelsExcluded;
@@ -65,4 +69,16 @@ public class DocumentParserOptions {
         this.anonymizedSinceDate = anonymizedSinceDate;
     }
 
+    public Set<DocumentField> getFieldSet() {
+        return Collections.unmodifiableSet(fieldSet);
+    }
+
+    public void setFieldSet(Set<DocumentField> fieldSet) {
+        this.fieldSet = fieldSet.isEmpty() ? EnumSet.noneOf(DocumentField.class) : EnumSet.copyOf(fieldSet);
+    }
+
+    public boolean hasField(DocumentField field) {
+        return fieldSet.contains(field);
+    }
+
 }
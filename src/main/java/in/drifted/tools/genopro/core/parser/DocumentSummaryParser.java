@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+import in.drifted.tools.genopro.core.model.DisplayStyle;
+import in.drifted.tools.genopro.core.model.DocumentInfo;
+import in.drifted.tools.genopro.core.model.DocumentSummary;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Fast scan of the GenoPro file header intended for listing many files. The
+ * XML is streamed and no DOM is built, reading stops as soon as the Document,
+ * Display and GenoMaps sections are read unless entity counts are requested.
+ * Like in {@link DocumentParser#getDocumentInfo}, the display style is taken
+ * from the Tag of the top-level Display section, so a file without it is
+ * read to the end.
+ */
+public class DocumentSummaryParser {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = DocumentEntityReader.newXMLInputFactory();
+
+    private DocumentSummaryParser() {
+    }
+
+    /**
+     * Returns the document summary without entity counts.
+     *
+     * @param path path to GenoPro file
+     * @return the document summary
+     * @throws IOException if an I/O error occurs or the XML is malformed
+     */
+    public static DocumentSummary getDocumentSummary(Path path) throws IOException {
+        return getDocumentSummary(path, false);
+    }
+
+    /**
+     * Returns the document summary. Entity counts are obtained by counting
+     * Individual, Family and Label elements, which requires reading the whole
+     * file, but their content is skipped.
+     *
+     * @param path            path to GenoPro file
+     * @param entitiesCounted use true to count individuals, families and labels
+     * @return the document summary
+     * @throws IOException if an I/O error occurs or the XML is malformed
+     */
+    public static DocumentSummary getDocumentSummary(Path path, boolean entitiesCounted) throws IOException {
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+
+            if (zipInputStream.getNextEntry() == null) {
+                throw new IOException("No GenoPro XML found in " + path);
+            }
+
+            XMLStreamReader xmlStreamReader = XML_INPUT_FACTORY.createXMLStreamReader(zipInputStream);
+
+            try {
+                return getDocumentSummary(xmlStreamReader, entitiesCounted);
+
+            } finally {
+                xmlStreamReader.close();
+            }
+
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static DocumentSummary getDocumentSummary(XMLStreamReader xmlStreamReader, boolean entitiesCounted)
+            throws XMLStreamException {
+
+        String title = "";
+        String description = "";
+        DisplayStyle displayStyle = DisplayStyle.NOTHING;
+        boolean documentRead = false;
+        boolean displayRead = false;
+        boolean genoMapsRead = false;
+
+        List<GenoMap> genoMapList = new ArrayList<>();
+        Set<String> genoMapIdSet = new HashSet<>();
+
+        int individualCount = entitiesCounted ? 0 : DocumentSummary.NOT_COUNTED;
+        int familyCount = entitiesCounted ? 0 : DocumentSummary.NOT_COUNTED;
+        int labelCount = entitiesCounted ? 0 : DocumentSummary.NOT_COUNTED;
+
+        int depth = 0;
+
+        while (xmlStreamReader.hasNext()) {
+
+            int event = xmlStreamReader.next();
+
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+
+                depth++;
+
+                if (depth == 2) {
+
+                    String sectionName = xmlStreamReader.getLocalName();
+
+                    switch (sectionName) {
+                        case "Document" -> {
+                            String[] values = getChildValues(xmlStreamReader, "Title", "Description");
+                            title = (values[0] != null) ? values[0] : "";
+                            description = (values[1] != null) ? values[1] : "";
+                            documentRead = true;
+                            depth--;
+                        }
+                        case "Display" -> {
+                            if (displayRead) {
+                                skipElement(xmlStreamReader);
+                            } else {
+                                String tag = getChildValues(xmlStreamReader, "Tag")[0];
+                                if (tag != null) {
+                                    displayStyle = DisplayStyle.parse(tag);
+                                }
+                                displayRead = true;
+                            }
+                            depth--;
+                        }
+                        case "GenoMaps" -> {
+                            readGenoMaps(xmlStreamReader, genoMapList, genoMapIdSet);
+                            genoMapsRead = true;
+                            depth--;
+                        }
+                        default -> {
+                            if (documentRead && displayRead && genoMapsRead && !entitiesCounted) {
+                                return new DocumentSummary(new DocumentInfo(title, description, displayStyle),
+                                        genoMapList, individualCount, familyCount, labelCount);
+                            }
+
+                            if (entitiesCounted) {
+                                switch (sectionName) {
+                                    case "Individuals" ->
+                                        individualCount += countChildElements(xmlStreamReader, "Individual");
+                                    case "Families" ->
+                                        familyCount += countChildElements(xmlStreamReader, "Family");
+                                    case "Labels" ->
+                                        labelCount += countChildElements(xmlStreamReader, "Label");
+                                    default ->
+                                        skipElement(xmlStreamReader);
+                                }
+                            } else {
+                                skipElement(xmlStreamReader);
+                            }
+
+                            depth--;
+                        }
+                    }
+                }
+            }
+        }
+
+        // without the Document section, the display style is not read either
+        return new DocumentSummary(
+                new DocumentInfo(title, description, documentRead ? displayStyle : DisplayStyle.NOTHING),
+                genoMapList, individualCount, familyCount, labelCount);
+    }
+
+    // returns the text of the requested child elements (null for missing ones), the reader is left at the end tag
+    private static String[] getChildValues(XMLStreamReader xmlStreamReader, String... tagNames)
+            throws XMLStreamException {
+
+        String[] values = new String[tagNames.length];
+
+        while (nextChildElement(xmlStreamReader)) {
+
+            String tagName = xmlStreamReader.getLocalName();
+            boolean found = false;
+
+            for (int i = 0; i < tagNames.length; i++) {
+                if (tagNames[i].equals(tagName)) {
+                    values[i] = getText(xmlStreamReader);
+                    found = true;
+                    break;
+                }
+            }
+
+            if (!found) {
+                skipElement(xmlStreamReader);
+            }
+        }
+
+        return values;
+    }
+
+    private static void readGenoMaps(XMLStreamReader xmlStreamReader, List<GenoMap> genoMapList,
+            Set<String> genoMapIdSet) throws XMLStreamException {
+
+        while (nextChildElement(xmlStreamReader)) {
+
+            if (xmlStreamReader.getLocalName().equals("GenoMap")) {
+
+                String name = getAttributeValue(xmlStreamReader, "Name");
+                String boundaryRect = getAttributeValue(xmlStreamReader, "BoundaryRect");
+                String title = getChildValues(xmlStreamReader, "Title")[0];
+
+                GenoMap genoMap = DocumentParser.getGenoMap(name, title, boundaryRect, genoMapIdSet);
+
+                if (genoMap != null) {
+                    genoMapList.add(genoMap);
+                }
+
+            } else {
+                skipElement(xmlStreamReader);
+            }
+        }
+    }
+
+    private static int countChildElements(XMLStreamReader xmlStreamReader, String tagName)
+            throws XMLStreamException {
+
+        int count = 0;
+
+        while (nextChildElement(xmlStreamReader)) {
+
+            if (xmlStreamReader.getLocalName().equals(tagName)) {
+                count++;
+            }
+
+            skipElement(xmlStreamReader);
+        }
+
+        return count;
+    }
+
+    // moves to the next child element start tag, returns false at the parent end tag, text is skipped
+    private static boolean nextChildElement(XMLStreamReader xmlStreamReader) throws XMLStreamException {
+
+        while (true) {
+            int event = xmlStreamReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+    }
+
+    // like getTextContent, the text of nested elements is included
+    private static String getText(XMLStreamReader xmlStreamReader) throws XMLStreamException {
+
+        StringBuilder text = new StringBuilder();
+
+        int level = 1;
+
+        while (level > 0) {
+            switch (xmlStreamReader.next()) {
+                case XMLStreamConstants.START_ELEMENT ->
+                    level++;
+                case XMLStreamConstants.END_ELEMENT ->
+                    level--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                    text.append(xmlStreamReader.getText());
+                default -> {
+                }
+            }
+        }
+
+        return text.toString();
+    }
+
+    private static String getAttributeValue(XMLStreamReader xmlStreamReader, String name) {
+        String value = xmlStreamReader.getAttributeValue(null, name);
+        return (value != null) ? value : "";
+    }
+
+    private static void skipElement(XMLStreamReader xmlStreamReader) throws XMLStreamException {
+
+        int level = 1;
+
+        while (level > 0) {
+            int event = xmlStreamReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Names of XML elements which need not be read for the given parser options.
+ * Sections are the children of the root element, entities are their children.
+ */
+final class ElementFilter {
+
+    private final Set<String> skippedSectionNameSet = new HashSet<>();
+    private final Map<String, Set<String>> skippedElementNameMap = new HashMap<>();
+
+    private ElementFilter() {
+    }
+
+    static ElementFilter fromOptions(DocumentParserOptions documentParserOptions) {
+
+        ElementFilter elementFilter = new ElementFilter();
+
+        if (documentParserOptions.hasTextLabelsExcluded()) {
+            elementFilter.skippedSectionNameSet.add("Labels");
+        }
+
+        if (!documentParserOptions.hasField(DocumentField.GEOMETRY)) {
+            elementFilter.skippedSectionNameSet.add("Twins");
+            elementFilter.addSkippedElementNames("Family", "Top", "Bottom");
+        }
+
+        if (!documentParserOptions.hasField(DocumentField.STYLING)) {
+            elementFilter.addSkippedElementNames("Label", "Color", "Border", "Alignment");
+        }
+
+        if (!documentParserOptions.hasField(DocumentField.HIGHLIGHT_KEYS)) {
+            elementFilter.addSkippedElementNames("Individual", "Display");
+        }
+
+        if (!documentParserOptions.hasField(DocumentField.EVENTS)) {
+            elementFilter.skippedSectionNameSet.add("Marriages");
+            // the birth is needed to tell whether the individual is living
+            if (documentParserOptions.getAnonymizedSinceDate() != null) {
+                elementFilter.addSkippedElementNames("Individual", "Death");
+            } else {
+                elementFilter.addSkippedElementNames("Individual", "Birth", "Death");
+            }
+        }
+
+        if (!documentParserOptions.hasField(DocumentField.PLACES)) {
+            elementFilter.skippedSectionNameSet.add("Places");
+        }
+
+        return elementFilter;
+    }
+
+    private void addSkippedElementNames(String entityName, String... elementNames) {
+        skippedElementNameMap.computeIfAbsent(entityName, k -> new HashSet<>()).addAll(Set.of(elementNames));
+    }
+
+    boolean isEmpty() {
+        return skippedSectionNameSet.isEmpty() && skippedElementNameMap.isEmpty();
+    }
+
+    boolean isSectionSkipped(String sectionName) {
+        return skippedSectionNameSet.contains(sectionName);
+    }
+
+    /**
+     * Returns the names of elements to be skipped at any depth within the
+     * given entity.
+     *
+     * @param entityName entity element name, e.g. Individual
+     * @return the set of skipped element names, empty if nothing is skipped
+     */
+    Set<String> getSkippedElementNameSet(String entityName) {
+        return skippedElementNameMap.getOrDefault(entityName, Set.of());
+    }
+
+}
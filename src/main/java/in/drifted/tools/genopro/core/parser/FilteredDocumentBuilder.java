@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Builds the DOM of a GenoPro file from the XML stream, elements rejected by
+ * the filter are skipped without creating any nodes.
+ */
+final class FilteredDocumentBuilder {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = DocumentEntityReader.newXMLInputFactory();
+
+    private FilteredDocumentBuilder() {
+    }
+
+    static Document parse(InputStream inputStream, ElementFilter elementFilter, DocumentBuilderPool documentBuilderPool)
+            throws IOException {
+
+        Document document = documentBuilderPool.newDocument();
+
+        try {
+            XMLStreamReader xmlStreamReader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+
+            try {
+                build(xmlStreamReader, document, elementFilter);
+
+            } finally {
+                xmlStreamReader.close();
+            }
+
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+
+        return document;
+    }
+
+    private static void build(XMLStreamReader xmlStreamReader, Document document, ElementFilter elementFilter)
+            throws XMLStreamException {
+
+        Node currentNode = document;
+        Set<String> skippedElementNameSet = Set.of();
+        int depth = 0;
+
+        while (xmlStreamReader.hasNext()) {
+
+            switch (xmlStreamReader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+
+                    depth++;
+
+                    String name = xmlStreamReader.getLocalName();
+
+                    if ((depth == 2 && elementFilter.isSectionSkipped(name))
+                            || (depth > 3 && skippedElementNameSet.contains(name))) {
+                        skipElement(xmlStreamReader);
+                        depth--;
+
+                    } else {
+                        if (depth == 3) {
+                            skippedElementNameSet = elementFilter.getSkippedElementNameSet(name);
+                        }
+
+                        Element element = document.createElement(name);
+
+                        for (int i = 0, count = xmlStreamReader.getAttributeCount(); i < count; i++) {
+                            element.setAttribute(xmlStreamReader.getAttributeLocalName(i),
+                                    xmlStreamReader.getAttributeValue(i));
+                        }
+
+                        currentNode.appendChild(element);
+                        currentNode = element;
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    depth--;
+                    currentNode = currentNode.getParentNode();
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (depth > 0) {
+                        currentNode.appendChild(document.createTextNode(xmlStreamReader.getText()));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader xmlStreamReader) throws XMLStreamException {
+
+        int level = 1;
+
+        while (level > 0) {
+            int event = xmlStreamReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            }
+        }
+    }
+
+}
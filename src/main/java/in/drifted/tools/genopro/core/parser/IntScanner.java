@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.parser;
+
+/**
+ * Allocation-free scanner of comma-separated integers like "10,-20,30,-40"
+ * used for positions and boundary rectangles. Whitespace around values is
+ * ignored and malformed values are read as 0.
+ */
+final class IntScanner {
+
+    private IntScanner() {
+    }
+
+    private static final long MALFORMED = Long.MIN_VALUE;
+
+    /**
+     * Scans comma-separated integers into the given array.
+     *
+     * @param text comma-separated integers
+     * @param values target array
+     * @param offset index of the first value in the target array
+     * @return the number of stored values
+     */
+    static int scan(String text, int[] values, int offset) {
+
+        if (text == null) {
+            return 0;
+        }
+
+        int count = 0;
+        int start = 0;
+
+        while (start <= text.length() && offset + count < values.length) {
+
+            int end = text.indexOf(',', start);
+
+            if (end < 0) {
+                end = text.length();
+            }
+
+            long value = scanValue(text, start, end);
+
+            values[offset + count] = (value != MALFORMED) ? (int) value : 0;
+            count++;
+
+            start = end + 1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the single integer value or the default value if the text is
+     * empty or malformed.
+     *
+     * @param text integer value
+     * @param defaultValue default value
+     * @return the integer value
+     */
+    static int parseInt(String text, int defaultValue) {
+
+        if (text == null) {
+            return defaultValue;
+        }
+
+        long value = scanValue(text, 0, text.length());
+
+        return (value != MALFORMED) ? (int) value : defaultValue;
+    }
+
+    private static long scanValue(String text, int start, int end) {
+
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        boolean negative = false;
+
+        if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+            negative = text.charAt(start) == '-';
+            start++;
+        }
+
+        if (start == end) {
+            return MALFORMED;
+        }
+
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+
+            char c = text.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return MALFORMED;
+            }
+
+            value = value * 10 + (c - '0');
+
+            if (value > Integer.MAX_VALUE + 1L) {
+                return MALFORMED;
+            }
+        }
+
+        value = negative ? -value : value;
+
+        return (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) ? value : MALFORMED;
+    }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.parser.DocumentField;
+import in.drifted.tools.genopro.core.parser.DocumentParser;
+import in.drifted.tools.genopro.core.parser.DocumentParserOptions;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe cache of parsed GenoPro files. Entries are keyed by the file
+ * path, its last modification time and the parser options, so a modified
+ * file is parsed again. Concurrent requests for the same key wait for a
+ * single parse. Least recently used entries are evicted once the estimated
+ * size of all entries exceeds the limit.
+ * <p>
+ * Cached data is shared between callers, so it must not be modified.
+ */
+public class DocumentCache {
+
+    private static final long INDIVIDUAL_SIZE = 1024;
+    private static final long FAMILY_SIZE = 768;
+    private static final long LABEL_SIZE = 512;
+
+    private final long maxSize;
+    private final Map<CacheKey, CompletableFuture<List<GenoMapData>>> loadingMap = new ConcurrentHashMap<>();
+    private final Map<CacheKey, CacheEntry> entryMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long loadFailureCount;
+    private long totalLoadTime;
+    private long evictionCount;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize maximum estimated size of all entries in bytes
+     */
+    public DocumentCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the collection of data for each GenoMap, either cached or
+     * parsed the same way as DocumentDataUtil.getGenoMapDataList does.
+     *
+     * @param path                  path to GenoPro file
+     * @param documentParserOptions parser options
+     * @return the collection of data for each GenoMap
+     * @throws IOException if an I/O error occurs while reading the file
+     */
+    public List<GenoMapData> getGenoMapDataList(Path path, DocumentParserOptions documentParserOptions)
+            throws IOException {
+
+        CacheKey cacheKey = CacheKey.of(path, documentParserOptions);
+
+        List<GenoMapData> genoMapDataList = getCachedGenoMapDataList(cacheKey);
+
+        if (genoMapDataList != null) {
+            return genoMapDataList;
+        }
+
+        CompletableFuture<List<GenoMapData>> future = new CompletableFuture<>();
+        CompletableFuture<List<GenoMapData>> loadingFuture = loadingMap.putIfAbsent(cacheKey, future);
+
+        if (loadingFuture != null) {
+            genoMapDataList = join(loadingFuture);
+            synchronized (this) {
+                hitCount++;
+            }
+            return genoMapDataList;
+        }
+
+        try {
+            // the entry could have been stored after the first lookup
+            genoMapDataList = getCachedGenoMapDataList(cacheKey);
+
+            if (genoMapDataList == null) {
+                genoMapDataList = load(cacheKey, path, documentParserOptions);
+            }
+
+            future.complete(genoMapDataList);
+
+            return genoMapDataList;
+
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            loadingMap.remove(cacheKey);
+        }
+    }
+
+    private synchronized List<GenoMapData> getCachedGenoMapDataList(CacheKey cacheKey) {
+
+        CacheEntry cacheEntry = entryMap.get(cacheKey);
+
+        if (cacheEntry != null) {
+            hitCount++;
+            return cacheEntry.genoMapDataList();
+        }
+
+        return null;
+    }
+
+    private List<GenoMapData> load(CacheKey cacheKey, Path path, DocumentParserOptions documentParserOptions)
+            throws IOException {
+
+        long startTime = System.nanoTime();
+
+        List<GenoMapData> genoMapDataList;
+
+        try {
+            genoMapDataList = List.copyOf(DocumentDataUtil.getGenoMapDataList(
+                    DocumentParser.getDocument(path, documentParserOptions), documentParserOptions));
+
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                missCount++;
+                loadFailureCount++;
+                totalLoadTime += System.nanoTime() - startTime;
+            }
+            throw e;
+        }
+
+        long entrySize = getEstimatedSize(genoMapDataList);
+
+        synchronized (this) {
+
+            missCount++;
+            totalLoadTime += System.nanoTime() - startTime;
+
+            // entries of other versions of the file are not used anymore
+            removeEntries(key -> key.path().equals(cacheKey.path())
+                    && !(key.lastModifiedTime().equals(cacheKey.lastModifiedTime())
+                    && key.fileSize() == cacheKey.fileSize()));
+
+            if (entrySize <= maxSize) {
+                entryMap.put(cacheKey, new CacheEntry(genoMapDataList, entrySize));
+                size += entrySize;
+                evict();
+            }
+        }
+
+        return genoMapDataList;
+    }
+
+    private void removeEntries(Predicate<CacheKey> predicate) {
+
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entryMap.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, CacheEntry> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                size -= entry.getValue().size();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evict() {
+
+        Iterator<CacheEntry> iterator = entryMap.values().iterator();
+
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().size();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static List<GenoMapData> join(CompletableFuture<List<GenoMapData>> future) throws IOException {
+
+        try {
+            return future.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the estimated retained size of the data. Just the number of
+     * entities is taken into account.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @return the estimated size in bytes
+     */
+    public static long getEstimatedSize(List<GenoMapData> genoMapDataList) {
+
+        long estimatedSize = 0;
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            estimatedSize += genoMapData.individualSet().size() * INDIVIDUAL_SIZE
+                    + genoMapData.familySet().size() * FAMILY_SIZE
+                    + genoMapData.labelSet().size() * LABEL_SIZE;
+        }
+
+        return estimatedSize;
+    }
+
+    /**
+     * Removes all entries of the given file.
+     *
+     * @param path path to GenoPro file
+     */
+    public synchronized void invalidate(Path path) {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        removeEntries(key -> key.path().equals(normalizedPath));
+    }
+
+    public synchronized void invalidateAll() {
+        entryMap.clear();
+        size = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hitCount, missCount, loadFailureCount, totalLoadTime, evictionCount, entryMap.size(), size);
+    }
+
+    /**
+     * Cache statistics. A request served by a parse started by another
+     * concurrent request is counted as a hit.
+     *
+     * @param hitCount         number of requests served from the cache
+     * @param missCount        number of requests which parsed the file
+     * @param loadFailureCount number of failed parses
+     * @param totalLoadTime    total time spent parsing in nanoseconds
+     * @param evictionCount    number of entries evicted due to the size limit
+     * @param entryCount       current number of entries
+     * @param size             current estimated size of all entries in bytes
+     */
+    public record Stats(long hitCount, long missCount, long loadFailureCount, long totalLoadTime, long evictionCount,
+            int entryCount, long size) {
+
+        public double getHitRate() {
+            long requestCount = hitCount + missCount;
+            return (requestCount > 0) ? (double) hitCount / requestCount : Double.NaN;
+        }
+
+        public double getAverageLoadTime() {
+            return (missCount > 0) ? (double) totalLoadTime / missCount : Double.NaN;
+        }
+    }
+
+    private record CacheEntry(List<GenoMapData> genoMapDataList, long size) {
+    }
+
+    // options are mutable, so their values are copied; anonymization of dates only applies when the date is today,
+    // so that mode is part of the key and an entry computed for one day is not served the next day
+    private record CacheKey(Path path, FileTime lastModifiedTime, long fileSize, boolean textLabelsExcluded,
+            boolean untitledGenoMapsExcluded, boolean unknownIndividualsExcluded,
+            boolean hyperlinkedIndividualInstancesDeduplicated, LocalDate anonymizedSinceDate,
+            boolean anonymizeDatesOnly, Set<DocumentField> fieldSet) {
+
+        private static CacheKey of(Path path, DocumentParserOptions documentParserOptions) throws IOException {
+
+            Path normalizedPath = path.toAbsolutePath().normalize();
+
+            return new CacheKey(normalizedPath, Files.getLastModifiedTime(normalizedPath), Files.size(normalizedPath),
+                    documentParserOptions.hasTextLabelsExcluded(),
+                    documentParserOptions.hasUntitledGenoMapsExcluded(),
+                    documentParserOptions.hasUnknownIndividualsExcluded(),
+                    documentParserOptions.hasHyperlinkedIndividualInstancesDeduplicated(),
+                    documentParserOptions.getAnonymizedSinceDate(),
+                    LocalDate.now().equals(documentParserOptions.getAnonymizedSinceDate()),
+                    documentParserOptions.getFieldSet().isEmpty()
+                    ? EnumSet.noneOf(DocumentField.class) : EnumSet.copyOf(documentParserOptions.getFieldSet()));
+        }
+    }
+
+}
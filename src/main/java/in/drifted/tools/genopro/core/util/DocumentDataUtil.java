@@ -23,6 +23,7 @@ import in.drifted.tools.genopro.core.model.GenoMapData;
 import in.drifted.tools.genopro.core.model.Individual;
 import in.drifted.tools.genopro.core.model.Label;
 import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.parser.DocumentField;
 import in.drifted.tools.genopro.core.parser.DocumentParser;
 import in.drifted.tools.genopro.core.parser.DocumentParserOptions;
 import in.drifted.tools.genopro.core.util.comparator.IndividualHorizontalPositionComparator;
@@ -51,16 +52,18 @@ public class DocumentDataUtil {
         List<GenoMapData> genoMapDataList = new ArrayList<>();
 
         Map<String, GenoMap> genoMapMap = DocumentParser.getGenoMapMap(document);
-        Map<String, String> placeMap = DocumentParser.getPlaceMap(document);
-        Map<String, Individual> individualMap = DocumentParser.getIndividualMap(document, genoMapMap, documentParserOptions);
+        Map<String, String> placeMap = documentParserOptions.hasField(DocumentField.PLACES)
+                ? DocumentParser.getPlaceMap(document) : Map.of();
+        Map<String, Individual> individualMap = DocumentParser.getIndividualMap(
+                document, genoMapMap, placeMap, documentParserOptions);
         Map<String, List<PedigreeLink>> familyPedigreeLinkMap = DocumentParser.getFamilyPedigreeLinkMap(
-                document, individualMap);
+                document, individualMap, documentParserOptions);
         Set<Family> familySet = DocumentParser.getFamilySet(
-                document, genoMapMap, individualMap, familyPedigreeLinkMap, placeMap);
+                document, genoMapMap, individualMap, familyPedigreeLinkMap, placeMap, documentParserOptions);
         Set<Label> labelSet = new HashSet<>();
 
         if (!documentParserOptions.hasTextLabelsExcluded()) {
-            labelSet = DocumentParser.getLabelSet(document, genoMapMap);
+            labelSet = DocumentParser.getLabelSet(document, genoMapMap, documentParserOptions);
         }
 
         Map<GenoMap, Set<Individual>> genoMapIndividualMap = new HashMap<>();
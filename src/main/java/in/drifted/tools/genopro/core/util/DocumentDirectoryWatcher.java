@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.parser.DocumentParser;
+import in.drifted.tools.genopro.core.parser.DocumentParserOptions;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.w3c.dom.Document;
+
+/**
+ * Keeps the parsed data of all GNO files in a directory up to date. Change
+ * events are debounced, so a file being written is parsed once it has been
+ * quiet for the given delay. Files are parsed on the given executor and the
+ * new data replaces the old one in a single step, so readers never block and
+ * always get either the previous or the new complete data. When parsing
+ * fails, e.g. as the file is still incomplete, the previous data is kept.
+ * <p>
+ * The data is shared between readers, so it must not be modified.
+ */
+public final class DocumentDirectoryWatcher implements AutoCloseable {
+
+    private static final String FILE_EXTENSION = ".gno";
+
+    private final Path directory;
+    private final DocumentParserOptions documentParserOptions;
+    private final long debounceDelay;
+    private final Executor executor;
+    private final WatchService watchService;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final AtomicReference<Map<Path, List<GenoMapData>>> dataMapReference = new AtomicReference<>(Map.of());
+    private final Map<Path, ScheduledFuture<?>> pendingParseMap = new ConcurrentHashMap<>();
+    private final Map<Path, Long> generationMap = new ConcurrentHashMap<>();
+    private final Map<Path, Exception> exceptionMap = new ConcurrentHashMap<>();
+    private final AtomicLong generationCounter = new AtomicLong();
+    private final Thread watchThread;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates the watcher and starts parsing all GNO files in the directory.
+     *
+     * @param directory             watched directory
+     * @param documentParserOptions parser options, they must not be changed
+     * later
+     * @param debounceDelay         delay since the last change event after
+     * which the file is parsed
+     * @param executor              executor used for parsing
+     * @throws IOException if the directory cannot be watched
+     */
+    public DocumentDirectoryWatcher(Path directory, DocumentParserOptions documentParserOptions,
+            Duration debounceDelay, Executor executor) throws IOException {
+
+        this.directory = directory.toAbsolutePath().normalize();
+        this.documentParserOptions = documentParserOptions;
+        this.debounceDelay = debounceDelay.toMillis();
+        this.executor = executor;
+        this.watchService = this.directory.getFileSystem().newWatchService();
+        this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gno-watcher-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.watchThread = new Thread(this::watch, "gno-watcher");
+        this.watchThread.setDaemon(true);
+
+        try {
+            // registered before scanning, so no change gets lost
+            this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            scanDirectory();
+
+        } catch (IOException e) {
+            scheduledExecutorService.shutdownNow();
+            watchService.close();
+            throw e;
+        }
+
+        this.watchThread.start();
+    }
+
+    public DocumentDirectoryWatcher(Path directory, DocumentParserOptions documentParserOptions) throws IOException {
+        this(directory, documentParserOptions, Duration.ofSeconds(1), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the data of the given file.
+     *
+     * @param path path to GenoPro file, either absolute or relative to the
+     * watched directory
+     * @return the collection of data for each GenoMap or null if the file
+     * has not been parsed (yet)
+     */
+    public List<GenoMapData> getGenoMapDataList(Path path) {
+        return dataMapReference.get().get(directory.resolve(path).normalize());
+    }
+
+    /**
+     * Returns the data of all parsed files. The map is an immutable snapshot.
+     *
+     * @return the map of data for each GenoMap by absolute file path
+     */
+    public Map<Path, List<GenoMapData>> getGenoMapDataListMap() {
+        return dataMapReference.get();
+    }
+
+    /**
+     * Returns the exception thrown by the last parse of the given file.
+     *
+     * @param path path to GenoPro file, either absolute or relative to the
+     * watched directory
+     * @return the exception or null if the last parse succeeded
+     */
+    public Exception getException(Path path) {
+        return exceptionMap.get(directory.resolve(path).normalize());
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        closed = true;
+
+        scheduledExecutorService.shutdownNow();
+        watchService.close();
+    }
+
+    private void watch() {
+
+        try {
+            while (!closed) {
+
+                WatchKey watchKey = watchService.take();
+
+                for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+
+                    if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescanDirectory();
+
+                    } else {
+                        Path path = directory.resolve((Path) watchEvent.context());
+
+                        if (isDocument(path)) {
+                            schedule(path);
+                        }
+                    }
+                }
+
+                if (!watchKey.reset()) {
+                    break;
+                }
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+        } catch (ClosedWatchServiceException e) {
+            // the watcher has been closed
+        }
+    }
+
+    private void rescanDirectory() {
+        try {
+            scanDirectory();
+        } catch (IOException e) {
+            // files are scheduled again on their next change
+        }
+    }
+
+    private void scanDirectory() throws IOException {
+
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+            for (Path path : directoryStream) {
+                if (isDocument(path)) {
+                    schedule(path);
+                }
+            }
+        }
+
+        // files deleted while events were lost
+        for (Path path : dataMapReference.get().keySet()) {
+            if (Files.notExists(path)) {
+                schedule(path);
+            }
+        }
+    }
+
+    private static boolean isDocument(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(FILE_EXTENSION);
+    }
+
+    // postpones the parse until no event of the file comes within the delay
+    private void schedule(Path path) {
+
+        if (closed) {
+            return;
+        }
+
+        long generation = generationCounter.incrementAndGet();
+
+        generationMap.put(path, generation);
+
+        ScheduledFuture<?> scheduledFuture = scheduledExecutorService.schedule(
+                () -> executor.execute(() -> update(path, generation)), debounceDelay, TimeUnit.MILLISECONDS);
+
+        ScheduledFuture<?> previousScheduledFuture = pendingParseMap.put(path, scheduledFuture);
+
+        if (previousScheduledFuture != null) {
+            previousScheduledFuture.cancel(false);
+        }
+    }
+
+    private void update(Path path, long generation) {
+
+        if (!isCurrent(path, generation)) {
+            return;
+        }
+
+        List<GenoMapData> genoMapDataList = null;
+
+        if (Files.exists(path)) {
+            try {
+                Document document = DocumentParser.getDocument(path, documentParserOptions);
+
+                if (document == null) {
+                    throw new IOException("No GenoPro XML found in " + path);
+                }
+
+                genoMapDataList = List.copyOf(DocumentDataUtil.getGenoMapDataList(document, documentParserOptions));
+
+            } catch (IOException | RuntimeException e) {
+                if (isCurrent(path, generation)) {
+                    exceptionMap.put(path, e);
+                }
+                return;
+            }
+        }
+
+        if (isCurrent(path, generation)) {
+            exceptionMap.remove(path);
+        }
+
+        List<GenoMapData> newGenoMapDataList = genoMapDataList;
+
+        // a newer change may have been parsed meanwhile
+        dataMapReference.updateAndGet(dataMap -> {
+
+            if (!isCurrent(path, generation)) {
+                return dataMap;
+            }
+
+            Map<Path, List<GenoMapData>> newDataMap = new HashMap<>(dataMap);
+
+            if (newGenoMapDataList != null) {
+                newDataMap.put(path, newGenoMapDataList);
+            } else {
+                newDataMap.remove(path);
+            }
+
+            return Map.copyOf(newDataMap);
+        });
+
+        // entries of a deleted file are dropped unless it has been changed again meanwhile,
+        // its exception has already been removed above
+        if (newGenoMapDataList == null && generationMap.remove(path, generation)) {
+            pendingParseMap.computeIfPresent(path, (key, future) -> future.isDone() ? null : future);
+        }
+    }
+
+    private boolean isCurrent(Path path, long generation) {
+        return generationMap.getOrDefault(path, 0L) == generation;
+    }
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.GenoDate;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Hyperlink;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Label;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.PedigreeLink;
+import in.drifted.tools.genopro.core.parser.DocumentParser;
+import in.drifted.tools.genopro.core.parser.DocumentParserOptions;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class DocumentMergeUtil {
+
+    private DocumentMergeUtil() {
+    }
+
+    /**
+     * Returns the combined data of several GenoPro files. Files are parsed in
+     * parallel, individual and family keys of each file are shifted past the
+     * keys of the preceding files (IDs are renumbered accordingly) and
+     * GenoMap IDs are made unique, so entities never collide.
+     * <p>
+     * An individual matching an individual of any preceding file (same
+     * normalized first and last name, gender, compatible birth and death
+     * dates) gets a hyperlink to it, the same way as GenoPro links instances
+     * of one person. Candidates are looked up in a blocking index, so the
+     * matching time grows linearly with the number of individuals.
+     *
+     * @param pathList paths to GenoPro files
+     * @param documentParserOptions parser options applied to each file
+     * @return the combined collection of data for each GenoMap, in the file
+     * order
+     * @throws IOException if an I/O error occurs while reading any file
+     */
+    public static List<GenoMapData> getMergedGenoMapDataList(
+            List<Path> pathList, DocumentParserOptions documentParserOptions) throws IOException {
+
+        List<List<GenoMapData>> documentGenoMapDataList;
+
+        try {
+            documentGenoMapDataList = IntStream.range(0, pathList.size()).parallel()
+                    .mapToObj(i -> getGenoMapDataList(pathList.get(i), documentParserOptions))
+                    .toList();
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<GenoMapData> mergedGenoMapDataList = new ArrayList<>();
+
+        Set<String> genoMapIdSet = new HashSet<>();
+        Map<String, List<Individual>> blockingIndex = new HashMap<>();
+
+        int individualKeyOffset = 0;
+        int familyKeyOffset = 0;
+
+        for (List<GenoMapData> genoMapDataList : documentGenoMapDataList) {
+
+            DocumentRemapper documentRemapper = new DocumentRemapper(individualKeyOffset, familyKeyOffset, genoMapIdSet);
+
+            List<GenoMapData> remappedGenoMapDataList = documentRemapper.getRemappedGenoMapDataList(genoMapDataList);
+            List<GenoMapData> linkedGenoMapDataList = new ArrayList<>();
+
+            Map<String, List<Individual>> documentBlockingIndex = new HashMap<>();
+
+            for (GenoMapData genoMapData : remappedGenoMapDataList) {
+
+                Set<Individual> individualSet = new HashSet<>();
+
+                for (Individual individual : genoMapData.individualSet()) {
+
+                    String blockingKey = getBlockingKey(individual);
+
+                    if (blockingKey != null) {
+
+                        Individual matchingIndividual = getMatchingIndividual(individual, blockingIndex.get(blockingKey));
+
+                        if (matchingIndividual != null) {
+                            individual = new Individual(individual.id(), individual.key(), individual.genoMap(),
+                                    new Hyperlink(matchingIndividual.genoMap(), matchingIndividual.id()),
+                                    individual.name(), individual.gender(), individual.birth(), individual.death(),
+                                    individual.isDeceased(), individual.isAnonymized(), individual.position(),
+                                    individual.boundaryRect(), individual.highlightKeySet());
+
+                        } else {
+                            documentBlockingIndex.computeIfAbsent(blockingKey, k -> new ArrayList<>()).add(individual);
+                        }
+                    }
+
+                    individualSet.add(individual);
+                }
+
+                linkedGenoMapDataList.add(new GenoMapData(genoMapData.genoMap(), individualSet,
+                        genoMapData.familySet(), genoMapData.labelSet()));
+            }
+
+            // individuals are matched against preceding files only
+            for (Map.Entry<String, List<Individual>> entry : documentBlockingIndex.entrySet()) {
+                blockingIndex.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+            }
+
+            mergedGenoMapDataList.addAll(linkedGenoMapDataList);
+
+            individualKeyOffset = documentRemapper.getMaxIndividualKey();
+            familyKeyOffset = documentRemapper.getMaxFamilyKey();
+        }
+
+        return mergedGenoMapDataList;
+    }
+
+    private static List<GenoMapData> getGenoMapDataList(Path path, DocumentParserOptions documentParserOptions) {
+        try {
+            return DocumentDataUtil.getGenoMapDataList(
+                    DocumentParser.getDocument(path, documentParserOptions), documentParserOptions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // individuals without a name, gender or birth year, anonymized ones and hyperlinked instances are never matched
+    private static String getBlockingKey(Individual individual) {
+
+        Name name = individual.name();
+
+        if (name == null || name.first() == null || name.last() == null || individual.isAnonymized()
+                || individual.hyperlink() != null || individual.birth() == null || !individual.birth().hasDate()) {
+            return null;
+        }
+
+        return getNormalizedName(name.last()) + "|" + getNormalizedName(name.first()) + "|"
+                + individual.gender().ordinal() + "|" + individual.birth().date().localDate().getYear();
+    }
+
+    private static String getNormalizedName(String name) {
+        return GenoMapIdUtil.getNormalizedText(name.trim()).toLowerCase(Locale.ROOT);
+    }
+
+    private static Individual getMatchingIndividual(Individual individual, List<Individual> candidateList) {
+
+        if (candidateList != null) {
+            for (Individual candidate : candidateList) {
+                if (isDateCompatible(individual.birth().date(), candidate.birth().date())
+                        && isDeathCompatible(individual, candidate)) {
+                    return candidate;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isDeathCompatible(Individual individual, Individual candidate) {
+
+        if (individual.death() != null && individual.death().hasDate()
+                && candidate.death() != null && candidate.death().hasDate()) {
+            return isDateCompatible(individual.death().date(), candidate.death().date());
+        }
+
+        return true;
+    }
+
+    // year-only dates match any date within the same year
+    private static boolean isDateCompatible(GenoDate date, GenoDate otherDate) {
+
+        if (date.yearOnly() || otherDate.yearOnly()) {
+            return date.localDate().getYear() == otherDate.localDate().getYear();
+        }
+
+        return date.localDate().equals(otherDate.localDate());
+    }
+
+    private static class DocumentRemapper {
+
+        private final int individualKeyOffset;
+        private final int familyKeyOffset;
+        private final Set<String> genoMapIdSet;
+        private final Map<GenoMap, GenoMap> genoMapMap = new HashMap<>();
+
+        private int maxIndividualKey;
+        private int maxFamilyKey;
+
+        DocumentRemapper(int individualKeyOffset, int familyKeyOffset, Set<String> genoMapIdSet) {
+            this.individualKeyOffset = individualKeyOffset;
+            this.familyKeyOffset = familyKeyOffset;
+            this.genoMapIdSet = genoMapIdSet;
+            this.maxIndividualKey = individualKeyOffset;
+            this.maxFamilyKey = familyKeyOffset;
+        }
+
+        List<GenoMapData> getRemappedGenoMapDataList(List<GenoMapData> genoMapDataList) {
+
+            for (GenoMapData genoMapData : genoMapDataList) {
+
+                GenoMap genoMap = genoMapData.genoMap();
+                String title = genoMap.title();
+
+                genoMapMap.put(genoMap, new GenoMap(
+                        GenoMapIdUtil.getUniqueGenoMapId((title != null) ? title : genoMap.name(), genoMapIdSet),
+                        genoMap.name(), title, genoMap.boundaryRect()));
+            }
+
+            List<GenoMapData> remappedGenoMapDataList = new ArrayList<>();
+
+            for (GenoMapData genoMapData : genoMapDataList) {
+
+                Set<Individual> individualSet = new HashSet<>();
+
+                for (Individual individual : genoMapData.individualSet()) {
+                    individualSet.add(getRemappedIndividual(individual));
+                }
+
+                Set<Family> familySet = new HashSet<>();
+
+                for (Family family : genoMapData.familySet()) {
+                    familySet.add(getRemappedFamily(family));
+                }
+
+                Set<Label> labelSet = new HashSet<>();
+
+                for (Label label : genoMapData.labelSet()) {
+                    labelSet.add(new Label(getGenoMap(label.genoMap()), label.text(), label.rect(), label.zIndex(),
+                            label.labelStyle()));
+                }
+
+                remappedGenoMapDataList.add(new GenoMapData(getGenoMap(genoMapData.genoMap()), individualSet,
+                        familySet, labelSet));
+            }
+
+            return remappedGenoMapDataList;
+        }
+
+        private Individual getRemappedIndividual(Individual individual) {
+
+            Hyperlink hyperlink = individual.hyperlink();
+
+            if (hyperlink != null) {
+                hyperlink = new Hyperlink(getGenoMap(hyperlink.genoMap()), getIndividualId(hyperlink.id()));
+            }
+
+            return new Individual(getIndividualId(individual.id()), getIndividualKey(individual.key()),
+                    getGenoMap(individual.genoMap()), hyperlink, individual.name(), individual.gender(),
+                    individual.birth(), individual.death(), individual.isDeceased(), individual.isAnonymized(),
+                    individual.position(), individual.boundaryRect(), individual.highlightKeySet());
+        }
+
+        private Family getRemappedFamily(Family family) {
+
+            int key = familyKeyOffset + family.key();
+
+            maxFamilyKey = Math.max(maxFamilyKey, key);
+
+            List<PedigreeLink> pedigreeLinkList = new ArrayList<>();
+
+            for (PedigreeLink pedigreeLink : family.pedigreeLinkList()) {
+                pedigreeLinkList.add(new PedigreeLink(getIndividualId(pedigreeLink.individualId()),
+                        pedigreeLink.pedigreeLinkType(), pedigreeLink.position(), pedigreeLink.twinPosition()));
+            }
+
+            return new Family(String.format("fam%05d", key), key, getIndividualId(family.fatherId()),
+                    getIndividualId(family.motherId()), getGenoMap(family.genoMap()), family.label(),
+                    family.familyRelationType(), family.familyLineType(), family.familyEventList(), pedigreeLinkList,
+                    family.position(), family.topBoundaryRect(), family.bottomBoundaryRect());
+        }
+
+        // IDs are derived from keys, so references to individuals excluded by the parser options are shifted too
+        private String getIndividualId(String individualId) {
+            return (individualId == null)
+                    ? null : String.format("ind%05d", getIndividualKey(Integer.parseInt(individualId.substring(3))));
+        }
+
+        private int getIndividualKey(int key) {
+
+            int shiftedKey = individualKeyOffset + key;
+
+            maxIndividualKey = Math.max(maxIndividualKey, shiftedKey);
+
+            return shiftedKey;
+        }
+
+        private GenoMap getGenoMap(GenoMap genoMap) {
+            return (genoMap == null) ? null : genoMapMap.getOrDefault(genoMap, genoMap);
+        }
+
+        int getMaxIndividualKey() {
+            return maxIndividualKey;
+        }
+
+        int getMaxFamilyKey() {
+            return maxFamilyKey;
+        }
+    }
+
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.DuplicateCandidate;
+import in.drifted.tools.genopro.core.model.EventDate;
+import in.drifted.tools.genopro.core.model.FamilyRelation;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Name;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+public class DuplicateIndividualUtil {
+
+    private static final int BIRTH_YEAR_BUCKET_SIZE = 5;
+    private static final int UNKNOWN_BUCKET = Integer.MIN_VALUE;
+
+    private static final double NAME_WEIGHT = 0.35;
+    private static final double BIRTH_WEIGHT = 0.25;
+    private static final double DEATH_WEIGHT = 0.15;
+    private static final double RELATION_WEIGHT = 0.25;
+    private static final double NEUTRAL_SCORE = 0.5;
+
+    private DuplicateIndividualUtil() {
+    }
+
+    /**
+     * Returns the pairs of individuals which are likely the same person.
+     * Individuals are split into blocks by the phonetic code of the last name,
+     * gender and birth year bucket (5 years), and only individuals within the
+     * same or adjacent bucket are compared, so the time grows roughly linearly
+     * with the number of individuals. Blocks are scored in parallel.
+     * <p>
+     * The score (0 to 1) is the weighted similarity of names (0.35), birth
+     * dates (0.25), death dates (0.15) and parents (0.25). Missing details
+     * count as neither matching nor conflicting. Anonymized individuals and
+     * instances hyperlinked to each other are skipped.
+     *
+     * @param individuals collection of individuals
+     * @param familyRelationMap map of family relations, see
+     * DocumentDataUtil.getFamilyRelationMap, or null if parents should not
+     * be compared
+     * @param minScore the minimum score of returned pairs
+     * @return the list of duplicate candidates, the most likely first
+     */
+    public static List<DuplicateCandidate> getDuplicateCandidateList(Collection<Individual> individuals,
+            Map<String, FamilyRelation> familyRelationMap, double minScore) {
+
+        Map<String, Profile> profileMap = new HashMap<>();
+        Map<BlockKey, List<Profile>> blockMap = new HashMap<>();
+
+        for (Individual individual : individuals) {
+
+            if (individual.isAnonymized() || individual.name() == null) {
+                continue;
+            }
+
+            Profile profile = Profile.fromIndividual(individual);
+
+            profileMap.put(individual.id(), profile);
+            blockMap.computeIfAbsent(new BlockKey(profile.lastNameCode(), individual.gender().ordinal(),
+                    getBucket(profile.birthYear())), k -> new ArrayList<>()).add(profile);
+        }
+
+        List<DuplicateCandidate> duplicateCandidateList = blockMap.entrySet().parallelStream()
+                .flatMap(entry -> getBlockCandidateList(entry, blockMap, profileMap, familyRelationMap, minScore)
+                .stream())
+                .sorted(Comparator.comparingDouble(DuplicateCandidate::score).reversed()
+                        .thenComparing(candidate -> candidate.individual().key())
+                        .thenComparing(candidate -> candidate.otherIndividual().key()))
+                .toList();
+
+        return duplicateCandidateList;
+    }
+
+    private static List<DuplicateCandidate> getBlockCandidateList(Entry<BlockKey, List<Profile>> entry,
+            Map<BlockKey, List<Profile>> blockMap, Map<String, Profile> profileMap,
+            Map<String, FamilyRelation> familyRelationMap, double minScore) {
+
+        List<DuplicateCandidate> duplicateCandidateList = new ArrayList<>();
+
+        BlockKey blockKey = entry.getKey();
+        List<Profile> profileList = entry.getValue();
+
+        for (int i = 0; i < profileList.size(); i++) {
+            for (int j = i + 1; j < profileList.size(); j++) {
+                addCandidate(profileList.get(i), profileList.get(j), profileMap, familyRelationMap, minScore,
+                        duplicateCandidateList);
+            }
+        }
+
+        // neighbouring bucket catches pairs across the bucket boundary
+        if (blockKey.birthYearBucket() != UNKNOWN_BUCKET) {
+
+            List<Profile> nextProfileList = blockMap.get(new BlockKey(blockKey.lastNameCode(), blockKey.gender(),
+                    blockKey.birthYearBucket() + 1));
+
+            if (nextProfileList != null) {
+                for (Profile profile : profileList) {
+                    for (Profile nextProfile : nextProfileList) {
+                        addCandidate(profile, nextProfile, profileMap, familyRelationMap, minScore,
+                                duplicateCandidateList);
+                    }
+                }
+            }
+        }
+
+        return duplicateCandidateList;
+    }
+
+    private static void addCandidate(Profile profile, Profile otherProfile, Map<String, Profile> profileMap,
+            Map<String, FamilyRelation> familyRelationMap, double minScore,
+            List<DuplicateCandidate> duplicateCandidateList) {
+
+        Individual individual = profile.individual();
+        Individual otherIndividual = otherProfile.individual();
+
+        if (isHyperlinked(individual, otherIndividual)) {
+            return;
+        }
+
+        double score = NAME_WEIGHT * getNameScore(profile, otherProfile)
+                + BIRTH_WEIGHT * getDateScore(individual.birth(), otherIndividual.birth())
+                + DEATH_WEIGHT * getDateScore(individual.death(), otherIndividual.death())
+                + RELATION_WEIGHT * getRelationScore(individual, otherIndividual, profileMap, familyRelationMap);
+
+        if (score >= minScore) {
+            if (individual.key() <= otherIndividual.key()) {
+                duplicateCandidateList.add(new DuplicateCandidate(individual, otherIndividual, score));
+            } else {
+                duplicateCandidateList.add(new DuplicateCandidate(otherIndividual, individual, score));
+            }
+        }
+    }
+
+    private static boolean isHyperlinked(Individual individual, Individual otherIndividual) {
+        return (individual.hyperlink() != null && individual.hyperlink().id().equals(otherIndividual.id()))
+                || (otherIndividual.hyperlink() != null && otherIndividual.hyperlink().id().equals(individual.id()));
+    }
+
+    private static double getNameScore(Profile profile, Profile otherProfile) {
+
+        double lastNameScore = getTextSimilarity(profile.lastName(), otherProfile.lastName());
+        double firstNameScore = getTextSimilarity(profile.firstName(), otherProfile.firstName());
+
+        double score = 0.5 * lastNameScore + 0.5 * firstNameScore;
+
+        // different middle names indicate different persons
+        if (!profile.middleName().isEmpty() && !otherProfile.middleName().isEmpty()
+                && !profile.middleName().equals(otherProfile.middleName())) {
+            score *= 0.8;
+        }
+
+        return score;
+    }
+
+    private static double getDateScore(EventDate eventDate, EventDate otherEventDate) {
+
+        if (eventDate == null || !eventDate.hasDate() || otherEventDate == null || !otherEventDate.hasDate()) {
+            return NEUTRAL_SCORE;
+        }
+
+        if (eventDate.date().localDate().equals(otherEventDate.date().localDate())) {
+            return 1.0;
+        }
+
+        int yearDifference = Math.abs(eventDate.date().localDate().getYear()
+                - otherEventDate.date().localDate().getYear());
+
+        return switch (yearDifference) {
+            case 0 -> (eventDate.date().yearOnly() || otherEventDate.date().yearOnly()) ? 0.9 : 0.7;
+            case 1 -> 0.4;
+            case 2 -> 0.2;
+            default -> 0.0;
+        };
+    }
+
+    private static double getRelationScore(Individual individual, Individual otherIndividual,
+            Map<String, Profile> profileMap, Map<String, FamilyRelation> familyRelationMap) {
+
+        if (familyRelationMap == null) {
+            return NEUTRAL_SCORE;
+        }
+
+        FamilyRelation familyRelation = familyRelationMap.get(individual.id());
+        FamilyRelation otherFamilyRelation = familyRelationMap.get(otherIndividual.id());
+
+        if (familyRelation == null || otherFamilyRelation == null) {
+            return NEUTRAL_SCORE;
+        }
+
+        double fatherScore = getParentScore(familyRelation.fatherId(), otherFamilyRelation.fatherId(), profileMap);
+        double motherScore = getParentScore(familyRelation.motherId(), otherFamilyRelation.motherId(), profileMap);
+
+        return (fatherScore + motherScore) / 2;
+    }
+
+    // duplicated persons often have duplicated parents, so parent names are compared as well
+    private static double getParentScore(String parentId, String otherParentId, Map<String, Profile> profileMap) {
+
+        if (parentId == null || otherParentId == null) {
+            return NEUTRAL_SCORE;
+        }
+
+        if (parentId.equals(otherParentId)) {
+            return 1.0;
+        }
+
+        Profile profile = profileMap.get(parentId);
+        Profile otherProfile = profileMap.get(otherParentId);
+
+        if (profile == null || otherProfile == null) {
+            return NEUTRAL_SCORE;
+        }
+
+        return getNameScore(profile, otherProfile);
+    }
+
+    // 1 for equal texts, otherwise 1 - normalized edit distance
+    private static double getTextSimilarity(String text, String otherText) {
+
+        if (text.isEmpty() || otherText.isEmpty()) {
+            return NEUTRAL_SCORE;
+        }
+
+        if (text.equals(otherText)) {
+            return 1.0;
+        }
+
+        int maxLength = Math.max(text.length(), otherText.length());
+
+        return 1.0 - (double) getEditDistance(text, otherText) / maxLength;
+    }
+
+    private static int getEditDistance(String text, String otherText) {
+
+        int[] previousRow = new int[otherText.length() + 1];
+        int[] row = new int[otherText.length() + 1];
+
+        for (int j = 0; j <= otherText.length(); j++) {
+            previousRow[j] = j;
+        }
+
+        for (int i = 1; i <= text.length(); i++) {
+
+            row[0] = i;
+
+            for (int j = 1; j <= otherText.length(); j++) {
+                int cost = (text.charAt(i - 1) == otherText.charAt(j - 1)) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previousRow[j] + 1), previousRow[j - 1] + cost);
+            }
+
+            int[] swappedRow = previousRow;
+            previousRow = row;
+            row = swappedRow;
+        }
+
+        return previousRow[otherText.length()];
+    }
+
+    private static int getBucket(int birthYear) {
+        return (birthYear == 0) ? UNKNOWN_BUCKET : Math.floorDiv(birthYear, BIRTH_YEAR_BUCKET_SIZE);
+    }
+
+    /**
+     * Returns the Soundex code of the text, e.g. "Tošovský" becomes "T212".
+     * Diacritical marks are removed first.
+     *
+     * @param text text
+     * @return the Soundex code or an empty string if the text has no letters
+     */
+    public static String getSoundex(String text) {
+
+        String normalizedText = GenoMapIdUtil.getNormalizedText(text).toUpperCase(Locale.ROOT);
+
+        char[] code = {'0', '0', '0', '0'};
+        int length = 0;
+        char previousDigit = 0;
+
+        for (int i = 0; i < normalizedText.length() && length < code.length; i++) {
+
+            char c = normalizedText.charAt(i);
+
+            if (c < 'A' || c > 'Z') {
+                continue;
+            }
+
+            char digit = getSoundexDigit(c);
+
+            if (length == 0) {
+                code[length++] = c;
+
+            } else if (digit != '0' && digit != previousDigit) {
+                code[length++] = digit;
+            }
+
+            // H and W do not separate letters with the same code, vowels do
+            if (c != 'H' && c != 'W') {
+                previousDigit = digit;
+            }
+        }
+
+        return (length == 0) ? "" : new String(code);
+    }
+
+    private static char getSoundexDigit(char c) {
+        return switch (c) {
+            case 'B', 'F', 'P', 'V' -> '1';
+            case 'C', 'G', 'J', 'K', 'Q', 'S', 'X', 'Z' -> '2';
+            case 'D', 'T' -> '3';
+            case 'L' -> '4';
+            case 'M', 'N' -> '5';
+            case 'R' -> '6';
+            default -> '0';
+        };
+    }
+
+    private record BlockKey(String lastNameCode, int gender, int birthYearBucket) {
+    }
+
+    private record Profile(Individual individual, String lastNameCode, String lastName, String firstName,
+            String middleName, int birthYear) {
+
+        static Profile fromIndividual(Individual individual) {
+
+            Name name = individual.name();
+
+            String lastName = getNormalizedName(name.last());
+            int birthYear = (individual.birth() != null && individual.birth().hasDate())
+                    ? individual.birth().date().localDate().getYear() : 0;
+
+            return new Profile(individual, getSoundex(lastName), lastName, getNormalizedName(name.first()),
+                    getNormalizedName(name.middle()), birthYear);
+        }
+
+        private static String getNormalizedName(String name) {
+            return (name == null) ? "" : GenoMapIdUtil.getNormalizedText(name.trim()).toLowerCase(Locale.ROOT);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.font.FontRenderContext;
+
+/**
+ * Text measurer backed by AWT font metrics. Using it requires the
+ * java.desktop module.
+ */
+public record FontMetricsTextMeasurer(FontMetrics fontMetrics) implements TextMeasurer {
+
+    private record CacheKey(Font font, FontRenderContext fontRenderContext) {
+    }
+
+    @Override
+    public int stringWidth(String text) {
+        return fontMetrics.stringWidth(text);
+    }
+
+    /**
+     * Returns the key made of the font and the font render context, as font
+     * metrics instances are not reused and do not override equals.
+     *
+     * @return the cache key
+     */
+    @Override
+    public Object getCacheKey() {
+        return new CacheKey(fontMetrics.getFont(), fontMetrics.getFontRenderContext());
+    }
+
+}
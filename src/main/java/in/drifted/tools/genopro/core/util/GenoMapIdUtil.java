@@ -16,32 +16,172 @@
 package in.drifted.tools.genopro.core.util;
 
 import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 public class GenoMapIdUtil {
 
+    private static final Pattern COMBINING_DIACRITICAL_MARKS_PATTERN
+            = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    private static final int CACHE_SIZE = 1024;
+
+    private static final Map<String, String> ID_CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Returns the URL friendly ID derived from the GenoMap title, e.g.
+     * "Tošovský family" becomes "tosovsky-family". Results for recently used
+     * titles are cached.
+     *
+     * @param genoMapTitle GenoMap title
+     * @return the GenoMap ID or null if the title is null
+     */
     public static String getGenoMapId(String genoMapTitle) {
 
         if (genoMapTitle != null) {
 
-            StringBuilder idBuilder = new StringBuilder();
+            synchronized (ID_CACHE) {
+                String id = ID_CACHE.get(genoMapTitle);
+                if (id != null) {
+                    return id;
+                }
+            }
 
-            String normalizedTitle = Normalizer.normalize(genoMapTitle, Normalizer.Form.NFD)
-                    .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+            String id = isAscii(genoMapTitle)
+                    ? getSlug(genoMapTitle) : getSlug(getNormalizedText(genoMapTitle).toLowerCase());
 
-            for (char c : normalizedTitle.toLowerCase().toCharArray()) {
+            synchronized (ID_CACHE) {
+                ID_CACHE.put(genoMapTitle, id);
+            }
 
-                if ((c >= 48 && c <= 57) || (c >= 97 && c <= 122)) {
-                    idBuilder.append(c);
+            return id;
+        }
 
-                } else {
-                    idBuilder.append(" ");
-                }
+        return null;
+    }
+
+    /**
+     * Returns the GenoMap ID which is unique within the given set of already
+     * used IDs. On collision, a numeric suffix is appended, e.g.
+     * "family-2". The returned ID is added to the set.
+     *
+     * @param genoMapTitle GenoMap title
+     * @param usedIdSet set of IDs already used in the document
+     * @return the unique GenoMap ID or null if the title is null
+     */
+    public static String getUniqueGenoMapId(String genoMapTitle, Set<String> usedIdSet) {
+
+        String id = getGenoMapId(genoMapTitle);
+
+        if (id != null) {
+
+            String uniqueId = id;
+
+            for (int i = 2; usedIdSet.contains(uniqueId); i++) {
+                uniqueId = id + "-" + i;
             }
 
-            return idBuilder.toString().trim().replaceAll("\\s+", "-");
+            usedIdSet.add(uniqueId);
+
+            return uniqueId;
         }
 
         return null;
     }
 
+    /**
+     * Returns the text with diacritical marks removed, e.g. "Tošovský"
+     * becomes "Tosovsky".
+     *
+     * @param text text
+     * @return the text without diacritical marks
+     */
+    public static String getNormalizedText(String text) {
+
+        if (isAscii(text)) {
+            return text;
+        }
+
+        String decomposedText = Normalizer.normalize(text, Normalizer.Form.NFD);
+
+        return COMBINING_DIACRITICAL_MARKS_PATTERN.matcher(decomposedText).replaceAll("");
+    }
+
+    private static boolean isAscii(String text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // letters and digits are kept (lower-cased), any other run of characters becomes a single hyphen
+    private static String getSlug(String text) {
+
+        int length = text.length();
+
+        if (isSlug(text)) {
+            return text;
+        }
+
+        char[] chars = new char[length];
+        int count = 0;
+        boolean separatorPending = false;
+
+        for (int i = 0; i < length; i++) {
+
+            char c = text.charAt(i);
+
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+
+            if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z')) {
+
+                if (separatorPending && count > 0) {
+                    chars[count++] = '-';
+                }
+
+                chars[count++] = c;
+                separatorPending = false;
+
+            } else {
+                separatorPending = true;
+            }
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    private static boolean isSlug(String text) {
+
+        int length = text.length();
+
+        if (length == 0 || text.charAt(0) == '-' || text.charAt(length - 1) == '-') {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+
+            char c = text.charAt(i);
+
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z')
+                    || (c == '-' && text.charAt(i - 1) != '-'))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
 }
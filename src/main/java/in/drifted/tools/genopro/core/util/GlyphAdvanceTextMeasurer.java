@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Measures text using a precomputed table of glyph advances, so no fonts
+ * nor AWT are needed. The bundled table describes a Helvetica/Arial
+ * compatible sans-serif font; custom tables can be loaded from a stream in
+ * the same format.
+ */
+public class GlyphAdvanceTextMeasurer implements TextMeasurer {
+
+    private static final String DEFAULT_RESOURCE = "sans-serif.advances";
+    private static final short UNKNOWN_ADVANCE = -1;
+
+    private static volatile GlyphAdvanceTable defaultGlyphAdvanceTable;
+
+    private final GlyphAdvanceTable glyphAdvanceTable;
+    private final float fontSize;
+
+    private record GlyphAdvanceTable(int unitsPerEm, int defaultAdvance, short[] advances) {
+    }
+
+    private GlyphAdvanceTextMeasurer(GlyphAdvanceTable glyphAdvanceTable, float fontSize) {
+        this.glyphAdvanceTable = glyphAdvanceTable;
+        this.fontSize = fontSize;
+    }
+
+    /**
+     * Returns the text measurer based on the bundled sans-serif glyph
+     * advance table.
+     *
+     * @param fontSize font size
+     * @return the text measurer
+     */
+    public static GlyphAdvanceTextMeasurer getDefault(float fontSize) {
+
+        GlyphAdvanceTable glyphAdvanceTable = defaultGlyphAdvanceTable;
+
+        if (glyphAdvanceTable == null) {
+
+            try (InputStream inputStream = GlyphAdvanceTextMeasurer.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+
+                if (inputStream == null) {
+                    throw new IOException("Resource not found: " + DEFAULT_RESOURCE);
+                }
+
+                glyphAdvanceTable = getGlyphAdvanceTable(inputStream);
+                defaultGlyphAdvanceTable = glyphAdvanceTable;
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return new GlyphAdvanceTextMeasurer(glyphAdvanceTable, fontSize);
+    }
+
+    /**
+     * Returns the text measurer based on the glyph advance table read from
+     * the stream.
+     *
+     * @param inputStream glyph advance table
+     * @param fontSize font size
+     * @return the text measurer
+     * @throws IOException if an I/O error occurs or the table is malformed
+     */
+    public static GlyphAdvanceTextMeasurer fromInputStream(InputStream inputStream, float fontSize) throws IOException {
+        return new GlyphAdvanceTextMeasurer(getGlyphAdvanceTable(inputStream), fontSize);
+    }
+
+    /**
+     * Returns the text measurer sharing the same glyph advance table, but
+     * using a different font size.
+     *
+     * @param fontSize font size
+     * @return the text measurer
+     */
+    public GlyphAdvanceTextMeasurer withFontSize(float fontSize) {
+        return new GlyphAdvanceTextMeasurer(glyphAdvanceTable, fontSize);
+    }
+
+    public float getFontSize() {
+        return fontSize;
+    }
+
+    @Override
+    public int stringWidth(String text) {
+
+        short[] advances = glyphAdvanceTable.advances();
+
+        long units = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+
+            int advance = (c < advances.length) ? advances[c] : getBaseAdvance(c, advances);
+
+            units += (advance != UNKNOWN_ADVANCE) ? advance : glyphAdvanceTable.defaultAdvance();
+        }
+
+        return Math.round(units * fontSize / glyphAdvanceTable.unitsPerEm());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof GlyphAdvanceTextMeasurer textMeasurer
+                && textMeasurer.glyphAdvanceTable == glyphAdvanceTable
+                && Float.compare(textMeasurer.fontSize, fontSize) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(glyphAdvanceTable) + Float.hashCode(fontSize);
+    }
+
+    private static GlyphAdvanceTable getGlyphAdvanceTable(InputStream inputStream) throws IOException {
+
+        int unitsPerEm = 1000;
+        int defaultAdvance = 0;
+        short[] advances = new short[256];
+        int maxCodePoint = -1;
+
+        Arrays.fill(advances, UNKNOWN_ADVANCE);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        String line;
+
+        try {
+            while ((line = reader.readLine()) != null) {
+
+                line = line.trim();
+
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fragments = line.split("\\s+");
+
+                switch (fragments[0]) {
+                    case "units" -> unitsPerEm = Integer.parseInt(fragments[1]);
+                    case "default" -> defaultAdvance = Integer.parseInt(fragments[1]);
+                    default -> {
+                        int codePoint = Integer.parseInt(fragments[0], 16);
+
+                        for (int i = 1; i < fragments.length; i++, codePoint++) {
+
+                            if (codePoint > Character.MAX_VALUE) {
+                                throw new IOException("Code point out of range: " + line);
+                            }
+
+                            if (codePoint >= advances.length) {
+                                int length = advances.length;
+                                advances = Arrays.copyOf(advances, Math.max(length * 2, codePoint + 1));
+                                Arrays.fill(advances, length, advances.length, UNKNOWN_ADVANCE);
+                            }
+
+                            advances[codePoint] = Short.parseShort(fragments[i]);
+                            maxCodePoint = Math.max(maxCodePoint, codePoint);
+                        }
+                    }
+                }
+            }
+
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed glyph advance table", e);
+        }
+
+        if (unitsPerEm <= 0) {
+            throw new IOException("Invalid units per em: " + unitsPerEm);
+        }
+
+        advances = Arrays.copyOf(advances, maxCodePoint + 1);
+
+        // characters with diacritics take the advance of their base letter
+        for (int c = 0; c < advances.length; c++) {
+            if (advances[c] == UNKNOWN_ADVANCE) {
+                advances[c] = (short) getBaseAdvance((char) c, advances);
+            }
+        }
+
+        return new GlyphAdvanceTable(unitsPerEm, defaultAdvance, advances);
+    }
+
+    private static int getBaseAdvance(char c, short[] advances) {
+
+        if (Character.isLetter(c)) {
+
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+
+            if (base != c && base < advances.length) {
+                return advances[base];
+            }
+        }
+
+        return UNKNOWN_ADVANCE;
+    }
+
+}
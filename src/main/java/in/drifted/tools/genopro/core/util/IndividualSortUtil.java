@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Name;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Locale-aware sorting of individuals. Instead of comparing individuals
+ * field by field, a single sort key is computed for each individual up front
+ * by concatenating its packed birth date and the collation keys of its last
+ * and first names, and the keys are compared as unsigned bytes. Collation
+ * keys are computed once per distinct name.
+ */
+public class IndividualSortUtil {
+
+    private static final int UNKNOWN_DATE = Integer.MAX_VALUE;
+
+    private IndividualSortUtil() {
+    }
+
+    /**
+     * Returns individuals ordered by birth date, then by last and first
+     * name, the same way as IndividualBirthDateComparator, but names are
+     * compared using the collation rules of the given locale. Individuals
+     * without birth date come last.
+     *
+     * @param individuals individuals to be sorted
+     * @param locale      locale of the names, e.g. Czech
+     * @param ascending   use false for the reverse order
+     * @return the sorted list of individuals
+     */
+    public static List<Individual> getBirthDateSortedIndividualList(
+            Collection<Individual> individuals, Locale locale, boolean ascending) {
+        return getSortedIndividualList(individuals, locale, ascending, true);
+    }
+
+    /**
+     * Returns individuals ordered by last and first name using the collation
+     * rules of the given locale, then by birth date. Individuals without
+     * name come first.
+     *
+     * @param individuals individuals to be sorted
+     * @param locale      locale of the names, e.g. Czech
+     * @param ascending   use false for the reverse order
+     * @return the sorted list of individuals
+     */
+    public static List<Individual> getNameSortedIndividualList(
+            Collection<Individual> individuals, Locale locale, boolean ascending) {
+        return getSortedIndividualList(individuals, locale, ascending, false);
+    }
+
+    private static List<Individual> getSortedIndividualList(
+            Collection<Individual> individuals, Locale locale, boolean ascending, boolean dateFirst) {
+
+        Collator collator = Collator.getInstance(locale);
+        Map<String, byte[]> collationKeyMap = new HashMap<>();
+
+        SortKey[] sortKeys = new SortKey[individuals.size()];
+
+        int index = 0;
+
+        for (Individual individual : individuals) {
+
+            Name name = individual.name();
+
+            byte[] lastKey = getCollationKey((name != null) ? name.last() : null, collator, collationKeyMap);
+            byte[] firstKey = getCollationKey((name != null) ? name.first() : null, collator, collationKeyMap);
+
+            int packedDate = PackedDateUtil.pack(individual.birth());
+
+            sortKeys[index++] = new SortKey(getKey(dateFirst,
+                    PackedDateUtil.hasDate(packedDate) ? packedDate : UNKNOWN_DATE, lastKey, firstKey,
+                    individual.key()), individual);
+        }
+
+        Arrays.sort(sortKeys, (sortKey01, sortKey02) -> Arrays.compareUnsigned(sortKey01.key(), sortKey02.key()));
+
+        List<Individual> individualList = new ArrayList<>(sortKeys.length);
+
+        for (SortKey sortKey : sortKeys) {
+            individualList.add(sortKey.individual());
+        }
+
+        if (!ascending) {
+            Collections.reverse(individualList);
+        }
+
+        return individualList;
+    }
+
+    private static byte[] getCollationKey(String text, Collator collator, Map<String, byte[]> collationKeyMap) {
+        return collationKeyMap.computeIfAbsent((text != null) ? text : "",
+                k -> collator.getCollationKey(k).toByteArray());
+    }
+
+    // names are terminated by two zero bytes, which precede any collation element
+    private static byte[] getKey(boolean dateFirst, int date, byte[] lastKey, byte[] firstKey, int individualKey) {
+
+        byte[] key = new byte[4 + lastKey.length + 2 + firstKey.length + 2 + 4];
+
+        int offset = 0;
+
+        if (dateFirst) {
+            offset = putInt(key, offset, date);
+        }
+
+        System.arraycopy(lastKey, 0, key, offset, lastKey.length);
+        offset += lastKey.length + 2;
+
+        System.arraycopy(firstKey, 0, key, offset, firstKey.length);
+        offset += firstKey.length + 2;
+
+        if (!dateFirst) {
+            offset = putInt(key, offset, date);
+        }
+
+        putInt(key, offset, individualKey);
+
+        return key;
+    }
+
+    private static int putInt(byte[] bytes, int offset, int value) {
+
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+
+        return offset + 4;
+    }
+
+    private record SortKey(byte[] key, Individual individual) {
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.EventDate;
+import java.time.LocalDate;
+
+public class PackedDateUtil {
+
+    public static final int NO_DATE = 0;
+
+    private PackedDateUtil() {
+    }
+
+    /**
+     * Returns the date packed into a single sortable int in the yyyymmdd
+     * form, e.g. 18501231 for 31 Dec 1850.
+     *
+     * @param localDate date
+     * @return the packed date or NO_DATE if the date is not available
+     */
+    public static int pack(LocalDate localDate) {
+
+        if (localDate == null || localDate.equals(LocalDate.MAX) || localDate.equals(LocalDate.MIN)) {
+            return NO_DATE;
+        }
+
+        return localDate.getYear() * 10000 + localDate.getMonthValue() * 100 + localDate.getDayOfMonth();
+    }
+
+    /**
+     * Returns the event date packed into a single sortable int.
+     *
+     * @param eventDate birth, death or any other event date
+     * @return the packed date or NO_DATE if the date is not available
+     */
+    public static int pack(EventDate eventDate) {
+
+        if (eventDate != null && eventDate.hasDate()) {
+            return pack(eventDate.date().localDate());
+        }
+
+        return NO_DATE;
+    }
+
+    public static boolean hasDate(int packedDate) {
+        return packedDate != NO_DATE;
+    }
+
+    public static int getYear(int packedDate) {
+        return packedDate / 10000;
+    }
+
+    public static int getMonth(int packedDate) {
+        return (packedDate / 100) % 100;
+    }
+
+    public static int getDay(int packedDate) {
+        return packedDate % 100;
+    }
+
+    public static LocalDate unpack(int packedDate) {
+        return hasDate(packedDate) ? LocalDate.of(getYear(packedDate), getMonth(packedDate), getDay(packedDate)) : null;
+    }
+
+}
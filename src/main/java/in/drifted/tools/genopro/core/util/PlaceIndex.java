@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyEvent;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Place;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of places, their hierarchy and events which took place
+ * there, so place-based reports do not need to scan all individuals.
+ */
+public final class PlaceIndex {
+
+    private final Map<String, Place> placeMap;
+    private final Map<String, List<Place>> childPlaceMap = new HashMap<>();
+    private final Map<String, List<Individual>> birthMap = new HashMap<>();
+    private final Map<String, List<Individual>> deathMap = new HashMap<>();
+    private final Map<String, List<Family>> marriageMap = new HashMap<>();
+
+    private PlaceIndex(Map<String, Place> placeMap) {
+        this.placeMap = placeMap;
+    }
+
+    /**
+     * Returns the index of all places.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @param placeMap map of all places, see DocumentParser.getPlaceDetailMap
+     * @return the place index
+     */
+    public static PlaceIndex fromGenoMapDataList(List<GenoMapData> genoMapDataList, Map<String, Place> placeMap) {
+
+        PlaceIndex placeIndex = new PlaceIndex(Map.copyOf(placeMap));
+
+        for (Place place : placeMap.values()) {
+            if (place.parentId() != null) {
+                placeIndex.childPlaceMap.computeIfAbsent(place.parentId(), k -> new ArrayList<>()).add(place);
+            }
+        }
+
+        List<Individual> individualList = new ArrayList<>();
+        List<Family> familyList = new ArrayList<>();
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            individualList.addAll(genoMapData.individualSet());
+            familyList.addAll(genoMapData.familySet());
+        }
+
+        individualList.sort(null);
+        familyList.sort(null);
+
+        for (Individual individual : individualList) {
+            if (individual.birth() != null && individual.birth().placeId() != null) {
+                placeIndex.birthMap.computeIfAbsent(individual.birth().placeId(), k -> new ArrayList<>()).add(individual);
+            }
+            if (individual.death() != null && individual.death().placeId() != null) {
+                placeIndex.deathMap.computeIfAbsent(individual.death().placeId(), k -> new ArrayList<>()).add(individual);
+            }
+        }
+
+        for (Family family : familyList) {
+            for (FamilyEvent familyEvent : family.familyEventList()) {
+                if (familyEvent.type() == FamilyEvent.MARRIAGE && familyEvent.placeId() != null) {
+                    placeIndex.marriageMap.computeIfAbsent(familyEvent.placeId(), k -> new ArrayList<>()).add(family);
+                }
+            }
+        }
+
+        return placeIndex;
+    }
+
+    public Place getPlace(String placeId) {
+        return placeMap.get(placeId);
+    }
+
+    public List<Place> getChildPlaceList(String placeId) {
+        return Collections.unmodifiableList(childPlaceMap.getOrDefault(placeId, List.of()));
+    }
+
+    /**
+     * Returns the path from the top-level place down to the given place, e.g.
+     * [Czechia, Moravia, Brno].
+     *
+     * @param placeId place ID
+     * @return the list of places, empty if the place is unknown
+     */
+    public List<Place> getPlacePathList(String placeId) {
+
+        Deque<Place> placePath = new ArrayDeque<>();
+        Set<String> visitedPlaceIdSet = new HashSet<>();
+
+        Place place = placeMap.get(placeId);
+
+        while (place != null && visitedPlaceIdSet.add(place.id())) {
+            placePath.addFirst(place);
+            place = (place.parentId() != null) ? placeMap.get(place.parentId()) : null;
+        }
+
+        return new ArrayList<>(placePath);
+    }
+
+    /**
+     * Returns individuals born in the given place.
+     *
+     * @param placeId place ID
+     * @param subPlacesIncluded use true to include all places within the place
+     * @return the list of individuals ordered by key
+     */
+    public List<Individual> getBornIndividualList(String placeId, boolean subPlacesIncluded) {
+        return getEntityList(birthMap, placeId, subPlacesIncluded);
+    }
+
+    /**
+     * Returns individuals who died in the given place.
+     *
+     * @param placeId place ID
+     * @param subPlacesIncluded use true to include all places within the place
+     * @return the list of individuals ordered by key
+     */
+    public List<Individual> getDeceasedIndividualList(String placeId, boolean subPlacesIncluded) {
+        return getEntityList(deathMap, placeId, subPlacesIncluded);
+    }
+
+    /**
+     * Returns families married in the given place.
+     *
+     * @param placeId place ID
+     * @param subPlacesIncluded use true to include all places within the place
+     * @return the list of families ordered by key
+     */
+    public List<Family> getMarriedFamilyList(String placeId, boolean subPlacesIncluded) {
+        return getEntityList(marriageMap, placeId, subPlacesIncluded);
+    }
+
+    private <T extends Comparable<T>> List<T> getEntityList(
+            Map<String, List<T>> entityMap, String placeId, boolean subPlacesIncluded) {
+
+        Set<String> placeIdSet = getPlaceIdSet(placeId, subPlacesIncluded);
+
+        if (placeIdSet.size() == 1) {
+            return Collections.unmodifiableList(entityMap.getOrDefault(placeIdSet.iterator().next(), List.of()));
+        }
+
+        List<T> entityList = new ArrayList<>();
+
+        for (String currentPlaceId : placeIdSet) {
+            entityList.addAll(entityMap.getOrDefault(currentPlaceId, List.of()));
+        }
+
+        entityList.sort(null);
+
+        return entityList;
+    }
+
+    private Set<String> getPlaceIdSet(String placeId, boolean subPlacesIncluded) {
+
+        Set<String> placeIdSet = new LinkedHashSet<>();
+        Deque<Place> placeQueue = new ArrayDeque<>();
+
+        Place place = placeMap.get(placeId);
+
+        if (place != null) {
+            placeQueue.add(place);
+        }
+
+        while (!placeQueue.isEmpty()) {
+
+            Place currentPlace = placeQueue.poll();
+
+            if (placeIdSet.add(currentPlace.id()) && subPlacesIncluded) {
+                placeQueue.addAll(childPlaceMap.getOrDefault(currentPlace.id(), List.of()));
+            }
+        }
+
+        return placeIdSet;
+    }
+
+}
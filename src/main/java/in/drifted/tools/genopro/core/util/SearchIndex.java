@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.Name;
+import in.drifted.tools.genopro.core.model.Place;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Immutable in-memory index for searching individuals by name and places by
+ * name. Texts are split into words, lower-cased and stripped of diacritical
+ * marks, so "tosov" finds "Tošovský". Every query word is matched as a prefix
+ * of indexed words, all query words must match. The index can be shared by
+ * multiple threads.
+ */
+public final class SearchIndex {
+
+    private static final float EXACT_MATCH_SCORE = 2f;
+    private static final float PREFIX_MATCH_SCORE = 1f;
+
+    // first, middle, last and last2 names
+    private static final float[] NAME_FIELD_WEIGHTS = {1.2f, 0.8f, 1.5f, 1f};
+    private static final float[] PLACE_FIELD_WEIGHTS = {1f};
+
+    private final List<Individual> individualList;
+    private final List<Place> placeList;
+    private final TermIndex individualTermIndex;
+    private final TermIndex placeTermIndex;
+
+    private SearchIndex(List<Individual> individualList, List<Place> placeList) {
+
+        this.individualList = individualList;
+        this.placeList = placeList;
+
+        TermIndexBuilder individualTermIndexBuilder = new TermIndexBuilder();
+
+        for (int i = 0; i < individualList.size(); i++) {
+            Name name = individualList.get(i).name();
+            if (name != null) {
+                individualTermIndexBuilder.add(i, 0, name.first());
+                individualTermIndexBuilder.add(i, 1, name.middle());
+                individualTermIndexBuilder.add(i, 2, name.last());
+                individualTermIndexBuilder.add(i, 3, name.last2());
+            }
+        }
+
+        TermIndexBuilder placeTermIndexBuilder = new TermIndexBuilder();
+
+        for (int i = 0; i < placeList.size(); i++) {
+            placeTermIndexBuilder.add(i, 0, placeList.get(i).name());
+        }
+
+        this.individualTermIndex = individualTermIndexBuilder.build(individualList.size(), NAME_FIELD_WEIGHTS);
+        this.placeTermIndex = placeTermIndexBuilder.build(placeList.size(), PLACE_FIELD_WEIGHTS);
+    }
+
+    /**
+     * Returns the search index of all individuals and places.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @param placeMap map of all places, see DocumentParser.getPlaceDetailMap
+     * @return the search index
+     */
+    public static SearchIndex fromGenoMapDataList(List<GenoMapData> genoMapDataList, Map<String, Place> placeMap) {
+
+        List<Individual> individualList = new ArrayList<>();
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            individualList.addAll(genoMapData.individualSet());
+        }
+
+        individualList.sort(null);
+
+        List<Place> placeList = new ArrayList<>(new TreeMap<>(placeMap).values());
+
+        return new SearchIndex(List.copyOf(individualList), List.copyOf(placeList));
+    }
+
+    /**
+     * Returns the best matching individuals. Whole-word matches rank above
+     * prefix matches, last names rank above first names.
+     *
+     * @param query searched text, e.g. "jan novak"
+     * @param limit maximum number of results
+     * @return the list of individuals, the best match first
+     */
+    public List<Individual> searchIndividuals(String query, int limit) {
+
+        List<Individual> resultList = new ArrayList<>();
+
+        for (int index : individualTermIndex.search(query, limit)) {
+            resultList.add(individualList.get(index));
+        }
+
+        return resultList;
+    }
+
+    /**
+     * Returns the best matching places.
+     *
+     * @param query searched text
+     * @param limit maximum number of results
+     * @return the list of places, the best match first
+     */
+    public List<Place> searchPlaces(String query, int limit) {
+
+        List<Place> resultList = new ArrayList<>();
+
+        for (int index : placeTermIndex.search(query, limit)) {
+            resultList.add(placeList.get(index));
+        }
+
+        return resultList;
+    }
+
+    /**
+     * Returns the normalized words of the text, e.g. "Tošovský-Nový" becomes
+     * ["tosovsky", "novy"].
+     *
+     * @param text text
+     * @return the list of normalized words
+     */
+    public static List<String> getTermList(String text) {
+
+        List<String> termList = new ArrayList<>();
+
+        if (text == null) {
+            return termList;
+        }
+
+        String normalizedText = GenoMapIdUtil.getNormalizedText(text).toLowerCase(Locale.ROOT);
+
+        int start = -1;
+
+        for (int i = 0; i <= normalizedText.length(); i++) {
+
+            boolean isTermChar = i < normalizedText.length() && Character.isLetterOrDigit(normalizedText.charAt(i));
+
+            if (isTermChar && start < 0) {
+                start = i;
+
+            } else if (!isTermChar && start >= 0) {
+                termList.add(normalizedText.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return termList;
+    }
+
+    // postings are sorted arrays of (document index << 2 | field)
+    private static class TermIndex {
+
+        private final String[] terms;
+        private final int[][] postings;
+        private final int documentCount;
+        private final float[] fieldWeights;
+
+        // allocated once per thread, only the entries of touched documents are reset after each search
+        private final ThreadLocal<SearchBuffers> searchBuffersThreadLocal;
+
+        TermIndex(String[] terms, int[][] postings, int documentCount, float[] fieldWeights) {
+            this.terms = terms;
+            this.postings = postings;
+            this.documentCount = documentCount;
+            this.fieldWeights = fieldWeights;
+            this.searchBuffersThreadLocal = ThreadLocal.withInitial(() -> new SearchBuffers(documentCount));
+        }
+
+        int[] search(String query, int limit) {
+
+            List<String> queryTermList = getTermList(query);
+
+            if (queryTermList.isEmpty() || limit <= 0 || documentCount == 0) {
+                return new int[0];
+            }
+
+            SearchBuffers searchBuffers = searchBuffersThreadLocal.get();
+
+            float[] scores = searchBuffers.scores;
+            float[] termScores = searchBuffers.termScores;
+            int[] matchCounts = searchBuffers.matchCounts;
+            int[] candidateDocuments = searchBuffers.candidateDocuments;
+
+            // documents matching the first query term, later terms can only narrow them down
+            int candidateCount = 0;
+
+            try {
+                int[] touchedDocuments = candidateDocuments;
+                int touchedCount = 0;
+
+                for (int q = 0; q < queryTermList.size(); q++) {
+
+                    String queryTerm = queryTermList.get(q);
+
+                    touchedDocuments = (q == 0) ? candidateDocuments : searchBuffers.touchedDocuments;
+                    touchedCount = 0;
+
+                    int from = getLowerBound(queryTerm);
+
+                    // terms sharing the prefix form a contiguous range of the sorted dictionary
+                    for (int t = from; t < terms.length && terms[t].startsWith(queryTerm); t++) {
+
+                        float matchScore = (terms[t].length() == queryTerm.length())
+                                ? EXACT_MATCH_SCORE : PREFIX_MATCH_SCORE;
+
+                        for (int posting : postings[t]) {
+
+                            int document = posting >>> 2;
+
+                            // only documents matching all previous query terms are of interest
+                            if (matchCounts[document] != q) {
+                                continue;
+                            }
+
+                            float score = matchScore * fieldWeights[posting & 3];
+
+                            if (termScores[document] == 0) {
+                                touchedDocuments[touchedCount++] = document;
+                            }
+
+                            termScores[document] = Math.max(termScores[document], score);
+                        }
+                    }
+
+                    if (q == 0) {
+                        candidateCount = touchedCount;
+                    }
+
+                    if (touchedCount == 0) {
+                        return new int[0];
+                    }
+
+                    for (int i = 0; i < touchedCount; i++) {
+                        int document = touchedDocuments[i];
+                        scores[document] += termScores[document];
+                        termScores[document] = 0;
+                        matchCounts[document]++;
+                    }
+                }
+
+                // min-heap of the best documents found so far, the worst one on top
+                PriorityQueue<Integer> queue = new PriorityQueue<>(limit + 1, (document, otherDocument) -> {
+                    int result = Float.compare(scores[document], scores[otherDocument]);
+                    return (result != 0) ? result : Integer.compare(otherDocument, document);
+                });
+
+                // documents touched by the last query term are those matching all query terms
+                for (int i = 0; i < touchedCount; i++) {
+                    queue.add(touchedDocuments[i]);
+                    if (queue.size() > limit) {
+                        queue.poll();
+                    }
+                }
+
+                int[] result = new int[queue.size()];
+
+                for (int i = result.length - 1; i >= 0; i--) {
+                    result[i] = queue.poll();
+                }
+
+                return result;
+
+            } finally {
+                for (int i = 0; i < candidateCount; i++) {
+                    int document = candidateDocuments[i];
+                    scores[document] = 0;
+                    termScores[document] = 0;
+                    matchCounts[document] = 0;
+                }
+            }
+        }
+
+        private int getLowerBound(String term) {
+
+            int index = Arrays.binarySearch(terms, term);
+
+            return (index >= 0) ? index : -index - 1;
+        }
+    }
+
+    private static class SearchBuffers {
+
+        private final float[] scores;
+        private final float[] termScores;
+        private final int[] matchCounts;
+        private final int[] candidateDocuments;
+        private final int[] touchedDocuments;
+
+        SearchBuffers(int documentCount) {
+            this.scores = new float[documentCount];
+            this.termScores = new float[documentCount];
+            this.matchCounts = new int[documentCount];
+            this.candidateDocuments = new int[documentCount];
+            this.touchedDocuments = new int[documentCount];
+        }
+    }
+
+    private static class TermIndexBuilder {
+
+        private final Map<String, PostingList> postingListMap = new HashMap<>();
+
+        void add(int document, int field, String text) {
+
+            for (String term : getTermList(text)) {
+                postingListMap.computeIfAbsent(term, k -> new PostingList()).add(document << 2 | field);
+            }
+        }
+
+        TermIndex build(int documentCount, float[] fieldWeights) {
+
+            String[] terms = postingListMap.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+
+            int[][] postings = new int[terms.length][];
+
+            for (int i = 0; i < terms.length; i++) {
+                postings[i] = postingListMap.get(terms[i]).toArray();
+            }
+
+            return new TermIndex(terms, postings, documentCount, fieldWeights);
+        }
+    }
+
+    private static class PostingList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+
+            // the same word repeated within a field is stored once
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+public interface TextMeasurer {
+
+    public int stringWidth(String text);
+
+    /**
+     * Returns the key identifying measurers producing the same widths, so
+     * cached widths can be shared among them.
+     *
+     * @return the cache key, the measurer itself by default
+     */
+    public default Object getCacheKey() {
+        return this;
+    }
+
+}
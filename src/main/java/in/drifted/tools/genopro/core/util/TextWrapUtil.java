@@ -17,12 +17,15 @@ package in.drifted.tools.genopro.core.util;
 
 import java.awt.FontMetrics;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public class TextWrapUtil {
 
     public static List<String> getWrappedLineList(String line, int maxWidth, FontMetrics fontMetrics) {
+        return getWrappedLineList(line, maxWidth, new FontMetricsTextMeasurer(fontMetrics));
+    }
+
+    public static List<String> getWrappedLineList(String line, int maxWidth, TextMeasurer textMeasurer) {
 
         List<String> wrappedLineList = new ArrayList<>();
 
@@ -31,26 +34,56 @@ public class TextWrapUtil {
 
         } else {
 
-            List<String> wordList = Arrays.asList(line.split(" "));
+            // word boundaries are kept as offsets, so each wrapped line is just a substring of the original line;
+            // trailing spaces are ignored the same way String.split drops trailing empty strings
+            int length = line.length();
+
+            while (length > 0 && line.charAt(length - 1) == ' ') {
+                length--;
+            }
+
+            int wordCount = (length > 0) ? 1 : 0;
+
+            for (int i = 0; i < length; i++) {
+                if (line.charAt(i) == ' ') {
+                    wordCount++;
+                }
+            }
+
+            int[] wordStarts = new int[wordCount];
+            int[] wordEnds = new int[wordCount];
+            int[] wordWidths = new int[wordCount];
+
+            int wordIndex = 0;
+            int wordStart = 0;
+
+            for (int i = 0; wordIndex < wordCount; i++) {
+                if (i == length || line.charAt(i) == ' ') {
+                    wordStarts[wordIndex] = wordStart;
+                    wordEnds[wordIndex] = i;
+                    wordWidths[wordIndex] = textMeasurer.stringWidth(line.substring(wordStart, i));
+                    wordIndex++;
+                    wordStart = i + 1;
+                }
+            }
 
             int width = 0;
             int startIndex = 0;
 
-            int spaceWidth = fontMetrics.stringWidth(" ");
+            int spaceWidth = textMeasurer.stringWidth(" ");
 
-            for (int i = 0; i < wordList.size(); i++) {
-                width += fontMetrics.stringWidth(wordList.get(i));
-                if (i < wordList.size() - 1) {
-                    int nextWidth = fontMetrics.stringWidth(wordList.get(i + 1));
-                    if (width + spaceWidth + nextWidth > maxWidth) {
-                        wrappedLineList.add(getWrappedLine(wordList, startIndex, i));
+            for (int i = 0; i < wordCount; i++) {
+                width += wordWidths[i];
+                if (i < wordCount - 1) {
+                    if (width + spaceWidth + wordWidths[i + 1] > maxWidth) {
+                        wrappedLineList.add(line.substring(wordStarts[startIndex], wordEnds[i]));
                         width = 0;
                         startIndex = i + 1;
                     } else {
                         width += spaceWidth;
                     }
                 } else {
-                    wrappedLineList.add(getWrappedLine(wordList, startIndex, i));
+                    wrappedLineList.add(line.substring(wordStarts[startIndex], wordEnds[i]));
                 }
             }
         }
@@ -58,8 +91,4 @@ public class TextWrapUtil {
         return wrappedLineList;
     }
 
-    private static String getWrappedLine(List<String> wordList, int startIndex, int endIndex) {
-        return String.join(" ", wordList.subList(startIndex, endIndex + 1));
-    }
-
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.Label;
+import java.awt.FontMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thread-safe text wrapper intended for rendering many labels. Word widths
+ * are cached per text measurer cache key and complete wrapping results are
+ * memoized by text, width and text measurer cache key, both with LRU
+ * eviction.
+ */
+public class TextWrapper {
+
+    private static final int MAX_TEXT_MEASURER_COUNT = 64;
+    private static final int MAX_WORD_COUNT = 16384;
+
+    private final int maxCacheSize;
+    private final Map<Object, Map<String, Integer>> wordWidthCacheMap;
+    private final Map<WrapKey, List<String>> wrappedLineCache;
+
+    private record WrapKey(String text, int maxWidth, Object textMeasurerKey) {
+    }
+
+    public TextWrapper(int maxCacheSize) {
+        this.maxCacheSize = maxCacheSize;
+        this.wordWidthCacheMap = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Map<String, Integer>> eldest) {
+                return size() > MAX_TEXT_MEASURER_COUNT;
+            }
+        };
+        this.wrappedLineCache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WrapKey, List<String>> eldest) {
+                return size() > TextWrapper.this.maxCacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the list of wrapped lines. Paragraphs separated by line breaks
+     * are wrapped separately, an empty paragraph results in an empty line.
+     *
+     * @param text text, possibly containing line breaks
+     * @param maxWidth maximum line width
+     * @param fontMetrics font metrics used for measuring words
+     * @return the unmodifiable list of wrapped lines
+     */
+    public List<String> getWrappedLineList(String text, int maxWidth, FontMetrics fontMetrics) {
+        return getWrappedLineList(text, maxWidth, new FontMetricsTextMeasurer(fontMetrics));
+    }
+
+    /**
+     * Returns the list of wrapped lines. Paragraphs separated by line breaks
+     * are wrapped separately, an empty paragraph results in an empty line.
+     *
+     * @param text text, possibly containing line breaks
+     * @param maxWidth maximum line width
+     * @param textMeasurer text measurer used for measuring words
+     * @return the unmodifiable list of wrapped lines
+     */
+    public List<String> getWrappedLineList(String text, int maxWidth, TextMeasurer textMeasurer) {
+
+        Object textMeasurerKey = textMeasurer.getCacheKey();
+        WrapKey wrapKey = new WrapKey(text, maxWidth, textMeasurerKey);
+
+        synchronized (wrappedLineCache) {
+            List<String> wrappedLineList = wrappedLineCache.get(wrapKey);
+            if (wrappedLineList != null) {
+                return wrappedLineList;
+            }
+        }
+
+        Map<String, Integer> wordWidthMap = getWordWidthMap(textMeasurerKey);
+
+        List<String> wrappedLineList = new ArrayList<>();
+
+        int paragraphStart = 0;
+
+        for (int i = 0; i <= text.length(); i++) {
+
+            if (i == text.length() || text.charAt(i) == '\n') {
+
+                int paragraphEnd = (i > paragraphStart && text.charAt(i - 1) == '\r') ? i - 1 : i;
+
+                wrappedLineList.addAll(TextWrapUtil.getWrappedLineList(text.substring(paragraphStart, paragraphEnd),
+                        maxWidth, word -> getWordWidth(word, wordWidthMap, textMeasurer)));
+
+                paragraphStart = i + 1;
+            }
+        }
+
+        wrappedLineList = Collections.unmodifiableList(wrappedLineList);
+
+        synchronized (wrappedLineCache) {
+            wrappedLineCache.put(wrapKey, wrappedLineList);
+        }
+
+        return wrappedLineList;
+    }
+
+    /**
+     * Returns the list of wrapped lines of the label text.
+     *
+     * @param label text label
+     * @param maxWidth maximum line width
+     * @param fontMetrics font metrics used for measuring words
+     * @return the unmodifiable list of wrapped lines
+     */
+    public List<String> getWrappedLineList(Label label, int maxWidth, FontMetrics fontMetrics) {
+        return getWrappedLineList(label.text(), maxWidth, fontMetrics);
+    }
+
+    /**
+     * Returns the list of wrapped lines of the label text.
+     *
+     * @param label text label
+     * @param maxWidth maximum line width
+     * @param textMeasurer text measurer used for measuring words
+     * @return the unmodifiable list of wrapped lines
+     */
+    public List<String> getWrappedLineList(Label label, int maxWidth, TextMeasurer textMeasurer) {
+        return getWrappedLineList(label.text(), maxWidth, textMeasurer);
+    }
+
+    public void clear() {
+
+        synchronized (wrappedLineCache) {
+            wrappedLineCache.clear();
+        }
+
+        synchronized (wordWidthCacheMap) {
+            wordWidthCacheMap.clear();
+        }
+    }
+
+    private Map<String, Integer> getWordWidthMap(Object textMeasurerKey) {
+        synchronized (wordWidthCacheMap) {
+            return wordWidthCacheMap.computeIfAbsent(textMeasurerKey, key -> new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                    return size() > MAX_WORD_COUNT;
+                }
+            });
+        }
+    }
+
+    private int getWordWidth(String word, Map<String, Integer> wordWidthMap, TextMeasurer textMeasurer) {
+        synchronized (wordWidthMap) {
+            return wordWidthMap.computeIfAbsent(word, textMeasurer::stringWidth);
+        }
+    }
+
+}
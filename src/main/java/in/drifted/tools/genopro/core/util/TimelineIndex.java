@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util;
+
+import in.drifted.tools.genopro.core.model.EventDate;
+import in.drifted.tools.genopro.core.model.Family;
+import in.drifted.tools.genopro.core.model.FamilyEvent;
+import in.drifted.tools.genopro.core.model.GenoMap;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import in.drifted.tools.genopro.core.model.TimelineEvent;
+import in.drifted.tools.genopro.core.model.TimelineEventType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of dated births, deaths, marriages and divorces. Events are
+ * kept in arrays sorted by packed yyyymmdd dates (see {@link PackedDateUtil}),
+ * one for the whole document and one per GenoMap, so range boundaries are
+ * found by binary search and results come in chronological order without
+ * sorting, e.g. getEventList(18500101, 19001231, genoMapId). Year-only dates
+ * are packed as 31 Dec of the year, events without a date are not indexed.
+ */
+public final class TimelineIndex {
+
+    private static final Comparator<TimelineEvent> EVENT_COMPARATOR = Comparator
+            .comparingInt(TimelineEvent::packedDate)
+            .thenComparing(TimelineEvent::type)
+            .thenComparingInt(TimelineIndex::getKey);
+
+    private static final Timeline EMPTY_TIMELINE = new Timeline(List.of());
+
+    private final Timeline timeline;
+    private final Map<String, Timeline> genoMapTimelineMap;
+
+    private TimelineIndex(Timeline timeline, Map<String, Timeline> genoMapTimelineMap) {
+        this.timeline = timeline;
+        this.genoMapTimelineMap = genoMapTimelineMap;
+    }
+
+    /**
+     * Returns the timeline index of all GenoMaps. Events of hyperlinked
+     * instances of the same person are indexed in each GenoMap, but just
+     * once in the document-wide timeline, so each person is counted once.
+     *
+     * @param genoMapDataList collection of data for each GenoMap
+     * @return the timeline index
+     */
+    public static TimelineIndex fromGenoMapDataList(List<GenoMapData> genoMapDataList) {
+
+        List<TimelineEvent> eventList = new ArrayList<>();
+        Map<String, List<TimelineEvent>> genoMapEventMap = new HashMap<>();
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+
+            GenoMap genoMap = genoMapData.genoMap();
+            List<TimelineEvent> genoMapEventList = genoMapEventMap.computeIfAbsent(genoMap.id(), k -> new ArrayList<>());
+
+            for (Individual individual : genoMapData.individualSet()) {
+                addEvent(genoMapEventList, TimelineEventType.BIRTH, individual.birth(), genoMap, individual);
+                addEvent(genoMapEventList, TimelineEventType.DEATH, individual.death(), genoMap, individual);
+            }
+
+            for (Family family : genoMapData.familySet()) {
+                for (FamilyEvent familyEvent : family.familyEventList()) {
+
+                    int packedDate = (familyEvent.date() != null) ? PackedDateUtil.pack(familyEvent.date().localDate())
+                            : PackedDateUtil.NO_DATE;
+
+                    if (PackedDateUtil.hasDate(packedDate)) {
+                        TimelineEventType type = (familyEvent.type() == FamilyEvent.MARRIAGE)
+                                ? TimelineEventType.MARRIAGE : TimelineEventType.DIVORCE;
+                        genoMapEventList.add(new TimelineEvent(
+                                type, packedDate, familyEvent.date(), familyEvent.place(), genoMap, null, family));
+                    }
+                }
+            }
+        }
+
+        Set<String> duplicateIdSet = getDuplicateIdSet(genoMapDataList);
+        Map<String, Timeline> genoMapTimelineMap = new HashMap<>();
+
+        for (Map.Entry<String, List<TimelineEvent>> entry : genoMapEventMap.entrySet()) {
+
+            for (TimelineEvent event : entry.getValue()) {
+                if (event.individual() == null || !duplicateIdSet.contains(event.individual().id())) {
+                    eventList.add(event);
+                }
+            }
+
+            genoMapTimelineMap.put(entry.getKey(), new Timeline(entry.getValue()));
+        }
+
+        return new TimelineIndex(new Timeline(eventList), genoMapTimelineMap);
+    }
+
+    // of each hyperlinked pair, the target instance is kept; instances hyperlinked to each other (deduplicated ones)
+    // keep the one with the lower ID, instances hyperlinked outside the indexed GenoMaps are kept as well
+    private static Set<String> getDuplicateIdSet(List<GenoMapData> genoMapDataList) {
+
+        Set<String> individualIdSet = new HashSet<>();
+        Map<String, String> hyperlinkIdMap = new HashMap<>();
+
+        for (GenoMapData genoMapData : genoMapDataList) {
+            for (Individual individual : genoMapData.individualSet()) {
+                individualIdSet.add(individual.id());
+                if (individual.hyperlink() != null) {
+                    hyperlinkIdMap.put(individual.id(), individual.hyperlink().id());
+                }
+            }
+        }
+
+        Set<String> duplicateIdSet = new HashSet<>();
+
+        for (Map.Entry<String, String> entry : hyperlinkIdMap.entrySet()) {
+            String id = entry.getKey();
+            String targetId = entry.getValue();
+            if (individualIdSet.contains(targetId) && !id.equals(targetId)
+                    && (!id.equals(hyperlinkIdMap.get(targetId)) || targetId.compareTo(id) < 0)) {
+                duplicateIdSet.add(id);
+            }
+        }
+
+        return duplicateIdSet;
+    }
+
+    private static void addEvent(List<TimelineEvent> eventList, TimelineEventType type, EventDate eventDate,
+            GenoMap genoMap, Individual individual) {
+
+        int packedDate = PackedDateUtil.pack(eventDate);
+
+        if (PackedDateUtil.hasDate(packedDate)) {
+            eventList.add(new TimelineEvent(
+                    type, packedDate, eventDate.date(), eventDate.place(), genoMap, individual, null));
+        }
+    }
+
+    private static int getKey(TimelineEvent event) {
+        return (event.individual() != null) ? event.individual().key() : event.family().key();
+    }
+
+    /**
+     * Returns events of all GenoMaps within the given date range.
+     *
+     * @param fromDate first packed date (inclusive)
+     * @param toDate last packed date (inclusive)
+     * @return the list of events in chronological order
+     */
+    public List<TimelineEvent> getEventList(int fromDate, int toDate) {
+        return getEventList(fromDate, toDate, null);
+    }
+
+    /**
+     * Returns events within the given date range. The returned list is an
+     * unmodifiable view of the index, so no events are copied.
+     *
+     * @param fromDate first packed date (inclusive)
+     * @param toDate last packed date (inclusive)
+     * @param genoMapId GenoMap ID or null for all GenoMaps
+     * @return the list of events in chronological order
+     */
+    public List<TimelineEvent> getEventList(int fromDate, int toDate, String genoMapId) {
+
+        Timeline selectedTimeline = getTimeline(genoMapId);
+
+        int fromIndex = selectedTimeline.getFromIndex(fromDate);
+        int toIndex = selectedTimeline.getToIndex(toDate);
+
+        return (fromIndex < toIndex) ? selectedTimeline.eventList.subList(fromIndex, toIndex) : List.of();
+    }
+
+    /**
+     * Returns events of the given types within the given date range.
+     *
+     * @param fromDate first packed date (inclusive)
+     * @param toDate last packed date (inclusive)
+     * @param genoMapId GenoMap ID or null for all GenoMaps
+     * @param typeSet event types to be included
+     * @return the list of events in chronological order
+     */
+    public List<TimelineEvent> getEventList(int fromDate, int toDate, String genoMapId, Set<TimelineEventType> typeSet) {
+
+        List<TimelineEvent> eventList = new ArrayList<>();
+
+        for (TimelineEvent event : getEventList(fromDate, toDate, genoMapId)) {
+            if (typeSet.contains(event.type())) {
+                eventList.add(event);
+            }
+        }
+
+        return eventList;
+    }
+
+    /**
+     * Returns the number of events within the given date range.
+     *
+     * @param fromDate first packed date (inclusive)
+     * @param toDate last packed date (inclusive)
+     * @param genoMapId GenoMap ID or null for all GenoMaps
+     * @return the number of events
+     */
+    public int getEventCount(int fromDate, int toDate, String genoMapId) {
+
+        Timeline selectedTimeline = getTimeline(genoMapId);
+
+        return Math.max(0, selectedTimeline.getToIndex(toDate) - selectedTimeline.getFromIndex(fromDate));
+    }
+
+    /**
+     * Returns the number of events per year within the given range. Each year
+     * boundary is found by binary search, so the cost does not depend on the
+     * number of events.
+     *
+     * @param fromYear first year (inclusive)
+     * @param toYear last year (inclusive)
+     * @param genoMapId GenoMap ID or null for all GenoMaps
+     * @return the array of counts where index 0 represents fromYear
+     */
+    public int[] getYearCounts(int fromYear, int toYear, String genoMapId) {
+
+        Timeline selectedTimeline = getTimeline(genoMapId);
+
+        int[] yearCounts = new int[Math.max(0, toYear - fromYear + 1)];
+
+        int fromIndex = selectedTimeline.getFromIndex(fromYear * 10000);
+
+        for (int i = 0; i < yearCounts.length; i++) {
+            int toIndex = selectedTimeline.getFromIndex((fromYear + i + 1) * 10000);
+            yearCounts[i] = toIndex - fromIndex;
+            fromIndex = toIndex;
+        }
+
+        return yearCounts;
+    }
+
+    public int size() {
+        return timeline.dates.length;
+    }
+
+    private Timeline getTimeline(String genoMapId) {
+        return (genoMapId == null) ? timeline : genoMapTimelineMap.getOrDefault(genoMapId, EMPTY_TIMELINE);
+    }
+
+    private static final class Timeline {
+
+        private final int[] dates;
+        private final List<TimelineEvent> eventList;
+
+        private Timeline(List<TimelineEvent> eventList) {
+
+            TimelineEvent[] events = eventList.toArray(TimelineEvent[]::new);
+            Arrays.sort(events, EVENT_COMPARATOR);
+
+            this.dates = new int[events.length];
+            this.eventList = Collections.unmodifiableList(Arrays.asList(events));
+
+            for (int i = 0; i < events.length; i++) {
+                dates[i] = events[i].packedDate();
+            }
+        }
+
+        // index of the first event dated on or after the given date
+        private int getFromIndex(int packedDate) {
+
+            int low = 0;
+            int high = dates.length;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates[middle] < packedDate) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+
+        // index following the last event dated on or before the given date
+        private int getToIndex(int packedDate) {
+            return (packedDate == Integer.MAX_VALUE) ? dates.length : getFromIndex(packedDate + 1);
+        }
+    }
+
+}
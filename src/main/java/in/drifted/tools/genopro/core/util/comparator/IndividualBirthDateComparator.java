@@ -41,16 +41,20 @@ public class IndividualBirthDateComparator implements Comparator<Individual> {
 
         if (result == 0) {
 
-            String last01 = (individual01.name().last() != null) ? individual01.name().last() : "";
-            String last02 = (individual02.name().last() != null) ? individual02.name().last() : "";
+            String last01 = (individual01.name() != null && individual01.name().last() != null)
+                    ? individual01.name().last() : "";
+            String last02 = (individual02.name() != null && individual02.name().last() != null)
+                    ? individual02.name().last() : "";
 
             result = last01.compareTo(last02);
         }
 
         if (result == 0) {
 
-            String first01 = (individual01.name().first() != null) ? individual01.name().first() : "";
-            String first02 = (individual02.name().first() != null) ? individual02.name().first() : "";
+            String first01 = (individual01.name() != null && individual01.name().first() != null)
+                    ? individual01.name().first() : "";
+            String first02 = (individual02.name() != null && individual02.name().first() != null)
+                    ? individual02.name().first() : "";
 
             result = first01.compareTo(first02);
         }
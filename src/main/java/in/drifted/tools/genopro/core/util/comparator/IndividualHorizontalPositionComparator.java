@@ -28,9 +28,13 @@ public class IndividualHorizontalPositionComparator implements Comparator<Indivi
 
     @Override
     public int compare(Individual o1, Individual o2) {
-        int result = Integer.compare(o1.boundaryRect().topLeft().x(),
-                o2.boundaryRect().topLeft().x());
+        int result = Integer.compare(getX(o1), getX(o2));
 
         return ascending ? result : -result;
     }
+
+    // individuals parsed without geometry have no boundary rect
+    private static int getX(Individual individual) {
+        return (individual.boundaryRect() != null) ? individual.boundaryRect().topLeft().x() : Integer.MAX_VALUE;
+    }
 }
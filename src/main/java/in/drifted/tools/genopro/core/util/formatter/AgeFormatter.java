@@ -17,9 +17,24 @@ package in.drifted.tools.genopro.core.util.formatter;
 
 import in.drifted.tools.genopro.core.model.Birth;
 import in.drifted.tools.genopro.core.model.Death;
+import java.time.LocalDate;
 
 public interface AgeFormatter {
 
     public String format(Birth birth, Death death);
 
+    /**
+     * Returns the formatted age, the age of living individuals is computed
+     * at the given date. Implementations not supporting the reference date
+     * use the current date.
+     *
+     * @param birth         birth
+     * @param death         death
+     * @param referenceDate date used instead of the current date
+     * @return the formatted age or null if it cannot be determined
+     */
+    public default String format(Birth birth, Death death, LocalDate referenceDate) {
+        return format(birth, death);
+    }
+
 }
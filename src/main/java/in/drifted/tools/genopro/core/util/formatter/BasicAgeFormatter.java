@@ -33,6 +33,11 @@ public class BasicAgeFormatter implements AgeFormatter {
 
     @Override
     public String format(Birth birth, Death death) {
+        return format(birth, death, LocalDate.now());
+    }
+
+    @Override
+    public String format(Birth birth, Death death, LocalDate referenceDate) {
 
         if (birth != null && birth.hasDate()) {
 
@@ -42,7 +47,7 @@ public class BasicAgeFormatter implements AgeFormatter {
                 period = Period.between(birth.date().localDate(), death.date().localDate());
 
             } else {
-                period = Period.between(birth.date().localDate(), LocalDate.now());
+                period = Period.between(birth.date().localDate(), referenceDate);
             }
 
             return getFormattedAge(period);
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 Jan Tošovský <jan.tosovsky.cz@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package in.drifted.tools.genopro.core.util.formatter;
+
+import in.drifted.tools.genopro.core.model.EventDate;
+import in.drifted.tools.genopro.core.model.FormattedDates;
+import in.drifted.tools.genopro.core.model.GenoDate;
+import in.drifted.tools.genopro.core.model.GenoMapData;
+import in.drifted.tools.genopro.core.model.Individual;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formatter of dates and ages of many individuals at once. Ages are computed
+ * at a fixed reference date and each distinct date is formatted just once,
+ * later requests are served from the memo. Instances are thread-safe.
+ */
+public class BatchFormatter {
+
+    private final DateFormatter dateFormatter;
+    private final AgeFormatter ageFormatter;
+    private final LocalDate referenceDate;
+    private final Map<String, String> formattedDateMap = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the formatter.
+     *
+     * @param dateFormatter date formatter
+     * @param ageFormatter  age formatter
+     * @param referenceDate date at which ages of living individuals are
+     * computed, typically the report date
+     */
+    public BatchFormatter(DateFormatter dateFormatter, AgeFormatter ageFormatter, LocalDate referenceDate) {
+        this.dateFormatter = dateFormatter;
+        this.ageFormatter = ageFormatter;
+        this.referenceDate = referenceDate;
+    }
+
+    /**
+     * Returns the formatted date the same way as
+     * DocumentDataUtil.getFormattedDate.
+     *
+     * @param date date
+     * @return the formatted date, empty if the date is not available
+     */
+    public String getFormattedDate(EventDate date) {
+
+        if (date != null && date.hasDate()) {
+            return getFormattedDate(date.date());
+        }
+
+        return "";
+    }
+
+    /**
+     * Returns the formatted date.
+     *
+     * @param genoDate date
+     * @return the formatted date
+     */
+    public String getFormattedDate(GenoDate genoDate) {
+
+        // the date text determines all other GenoDate fields
+        String date = genoDate.date();
+
+        if (date == null) {
+            return genoDate.format(dateFormatter);
+        }
+
+        String formattedDate = formattedDateMap.get(date);
+
+        if (formattedDate == null) {
+            formattedDate = genoDate.format(dateFormatter);
+            formattedDateMap.put(date, formattedDate);
+        }
+
+        return formattedDate;
+    }
+
+    /**
+     * Returns the formatted age of the individual.
+     *
+     * @param individual individual
+     * @return the formatted age or null if it cannot be determined
+     */
+    public String getFormattedAge(Individual individual) {
+        return ageFormatter.format(individual.birth(), individual.death(), referenceDate);
+    }
+
+    /**
+     * Returns the formatted dates and ages of all individuals of the GenoMap.
+     *
+     * @param genoMapData data of the GenoMap
+     * @return the map of formatted dates by individual ID
+     */
+    public Map<String, FormattedDates> getFormattedDatesMap(GenoMapData genoMapData) {
+
+        Map<String, FormattedDates> formattedDatesMap = new HashMap<>();
+
+        for (Individual individual : genoMapData.individualSet()) {
+            formattedDatesMap.put(individual.id(), new FormattedDates(getFormattedDate(individual.birth()),
+                    getFormattedDate(individual.death()), getFormattedAge(individual)));
+        }
+
+        return formattedDatesMap;
+    }
+
+    public LocalDate getReferenceDate() {
+        return referenceDate;
+    }
+
+}
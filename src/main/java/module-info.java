@@ -1,9 +1,11 @@
 module in.drifted.tools.genopro.core {
 
-    requires java.desktop;
+    requires static java.desktop;
     requires java.xml;
 
+    exports in.drifted.tools.genopro.core.export;
     exports in.drifted.tools.genopro.core.model;
+    exports in.drifted.tools.genopro.core.model.offheap;
     exports in.drifted.tools.genopro.core.parser;
     exports in.drifted.tools.genopro.core.util;
 